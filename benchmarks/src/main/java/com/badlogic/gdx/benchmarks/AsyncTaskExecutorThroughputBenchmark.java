@@ -0,0 +1,98 @@
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.concurrent.AsyncTask;
+import com.badlogic.gdx.concurrent.AsyncTaskExecutor;
+import com.badlogic.gdx.concurrent.AsyncTaskGroup;
+import com.badlogic.gdx.concurrent.AsyncTaskJob;
+import com.badlogic.gdx.utils.Array;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AsyncTaskExecutor} running batches of small CPU-bound jobs, at different thread
+ * counts. Tasks are either scheduled and awaited one by one, or as one {@link AsyncTaskGroup}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AsyncTaskExecutorThroughputBenchmark {
+
+	private static final int BATCH_SIZE = 256;
+
+	static class WorkJob implements AsyncTaskJob<WorkJob> {
+
+		long tokens;
+
+		@Override
+		public WorkJob call() {
+			Blackhole.consumeCPU(tokens);
+			return this;
+		}
+
+		@Override
+		public void completed() {
+
+		}
+	}
+
+	@Param({"1", "2", "4", "8"})
+	int threads;
+
+	/**
+	 * Amount of work per job, see {@link Blackhole#consumeCPU(long)}.
+	 */
+	@Param({"100", "1000"})
+	long tokens;
+
+	private AsyncTaskExecutor executor;
+	private final Array<AsyncTask<?>> tasks = new Array<>();
+	private final AsyncTaskGroup group = new AsyncTaskGroup();
+
+	@Setup
+	public void setup() {
+
+		executor = new AsyncTaskExecutor(threads);
+
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			WorkJob job = new WorkJob();
+			job.tokens = tokens;
+			tasks.add(new AsyncTask<>(job, AsyncTask.Completion.SIGNAL));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.dispose();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void executeEach() throws InterruptedException {
+
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			executor.execute(task(i));
+		}
+
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			task(i).await(null);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void executeAll() throws InterruptedException {
+		executor.executeAll(tasks, group);
+		group.awaitAll();
+	}
+
+	@SuppressWarnings("unchecked")
+	private AsyncTask<WorkJob> task(int index) {
+		return (AsyncTask<WorkJob>) tasks.get(index);
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.concurrent.AsyncTask;
+import com.badlogic.gdx.concurrent.AsyncTaskExecutor;
+import com.badlogic.gdx.concurrent.AsyncTaskJob;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip latency of a single, empty {@link AsyncTask}: schedule, run on a worker thread, and await
+ * completion on the calling thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AsyncTaskLatencyBenchmark {
+
+	static class EmptyJob implements AsyncTaskJob<EmptyJob> {
+
+		int calls;
+
+		@Override
+		public EmptyJob call() {
+			calls++;
+			return this;
+		}
+
+		@Override
+		public void completed() {
+
+		}
+	}
+
+	@Param({"BARRIER", "SIGNAL"})
+	AsyncTask.Completion completion;
+
+	private AsyncTaskExecutor executor;
+	private EmptyJob job;
+	private AsyncTask<EmptyJob> task;
+
+	@Setup
+	public void setup() {
+		executor = new AsyncTaskExecutor(1);
+		job = new EmptyJob();
+		task = new AsyncTask<>(job, completion);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.dispose();
+	}
+
+	@Benchmark
+	public int roundTrip() throws InterruptedException {
+		executor.execute(task);
+		task.await(null);
+		return job.calls;
+	}
+
+}
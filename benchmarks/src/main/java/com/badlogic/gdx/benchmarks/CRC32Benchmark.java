@@ -0,0 +1,95 @@
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.checksum.CRC32;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the slicing-by-8 {@link CRC32} implementation with the previous byte-at-a-time table loop, and
+ * with {@link java.util.zip.CRC32} as a reference.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CRC32Benchmark {
+
+	@Param({"64", "4096", "1048576"})
+	int size;
+
+	private byte[] array;
+	private ByteBuffer heapBuffer;
+	private ByteBuffer directBuffer;
+
+	private final CRC32 checksum = CRC32.valueOf(0);
+	private final java.util.zip.CRC32 jdkChecksum = new java.util.zip.CRC32();
+
+	private static final int[] table = new int[256];
+
+	static {
+		for (int n = 0; n < 256; n++) {
+			int c = n;
+			for (int k = 0; k < 8; k++) {
+				c = (c & 1) != 0 ? 0xedb88320 ^ (c >>> 1) : c >>> 1;
+			}
+			table[n] = c;
+		}
+	}
+
+	@Setup
+	public void setup() {
+
+		array = new byte[size];
+		new Random(size).nextBytes(array);
+
+		heapBuffer = ByteBuffer.wrap(array);
+
+		directBuffer = ByteBuffer.allocateDirect(size);
+		directBuffer.put(array);
+	}
+
+	/**
+	 * The table loop {@link CRC32} used before slicing-by-8.
+	 */
+	@Benchmark
+	public int byteAtATime() {
+
+		int value = ~0;
+
+		for (int i = 0; i < array.length; ++i) {
+			value = (value >>> 8) ^ table[(array[i] ^ value) & 0xff];
+		}
+
+		return ~value;
+	}
+
+	@Benchmark
+	public CRC32 array() {
+		return CRC32.calculate(CRC32.reset(checksum), array);
+	}
+
+	@Benchmark
+	public CRC32 heapBuffer() {
+		heapBuffer.clear();
+		return CRC32.update(CRC32.reset(checksum), heapBuffer);
+	}
+
+	@Benchmark
+	public CRC32 directBuffer() {
+		directBuffer.clear();
+		return CRC32.update(CRC32.reset(checksum), directBuffer);
+	}
+
+	@Benchmark
+	public long jdk() {
+		jdkChecksum.reset();
+		jdkChecksum.update(array, 0, array.length);
+		return jdkChecksum.getValue();
+	}
+
+}
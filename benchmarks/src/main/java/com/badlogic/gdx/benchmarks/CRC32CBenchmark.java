@@ -0,0 +1,75 @@
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.checksum.CRC32;
+import com.badlogic.gdx.checksum.CRC32C;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CRC32C} with {@link CRC32}. On JDK 9+, CRC32C uses the intrinsified JDK implementation,
+ * else the same slicing-by-8 tables as CRC32. The {@code incremental} benchmarks continue from a non-zero
+ * checksum, which is the slower path on JDK 9+.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CRC32CBenchmark {
+
+	@Param({"64", "4096", "1048576"})
+	int size;
+
+	private byte[] array;
+	private ByteBuffer directBuffer;
+
+	private final CRC32 crc32 = CRC32.valueOf(0);
+	private final CRC32C crc32c = CRC32C.valueOf(0);
+
+	@Setup
+	public void setup() {
+
+		array = new byte[size];
+		new Random(size).nextBytes(array);
+
+		directBuffer = ByteBuffer.allocateDirect(size);
+		directBuffer.put(array);
+	}
+
+	@Benchmark
+	public CRC32 crc32() {
+		return CRC32.calculate(crc32, array);
+	}
+
+	@Benchmark
+	public CRC32C crc32c() {
+		return CRC32C.calculate(crc32c, array);
+	}
+
+	@Benchmark
+	public CRC32 crc32Direct() {
+		directBuffer.clear();
+		return CRC32.update(CRC32.reset(crc32), directBuffer);
+	}
+
+	@Benchmark
+	public CRC32C crc32cDirect() {
+		directBuffer.clear();
+		return CRC32C.update(CRC32C.reset(crc32c), directBuffer);
+	}
+
+	@Benchmark
+	public CRC32 crc32Incremental() {
+		return CRC32.update(crc32, array, 0, array.length);
+	}
+
+	@Benchmark
+	public CRC32C crc32cIncremental() {
+		return CRC32C.update(crc32c, array, 0, array.length);
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.concurrent.ReentrantLock;
+import com.badlogic.gdx.concurrent.ReentrantReadWriteLock;
+import com.badlogic.gdx.concurrent.StampedLock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Compares the functional lock wrappers with direct use of the JDK locks they wrap. All threads share the
+ * same locks. Run with {@code -t} to change the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LockBenchmark {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Lock jdkLock = new java.util.concurrent.locks.ReentrantLock();
+
+	private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+	private final ReadWriteLock jdkReadWriteLock = new java.util.concurrent.locks.ReentrantReadWriteLock();
+
+	private final StampedLock stampedLock = new StampedLock();
+
+	private long value;
+
+	@Benchmark
+	public long lockWrapper() {
+		return lock.lock(() -> ++value);
+	}
+
+	@Benchmark
+	public long lockJdk() {
+		jdkLock.lock();
+		try {
+			return ++value;
+		} finally {
+			jdkLock.unlock();
+		}
+	}
+
+	@Benchmark
+	public long readWrapper() {
+		return readWriteLock.read(() -> value);
+	}
+
+	@Benchmark
+	public long readJdk() {
+		Lock readLock = jdkReadWriteLock.readLock();
+		readLock.lock();
+		try {
+			return value;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Benchmark
+	public long readStampedOptimistic() {
+		return stampedLock.read(() -> value);
+	}
+
+	@Benchmark
+	public long writeWrapper() {
+		return readWriteLock.write(() -> ++value);
+	}
+
+	@Benchmark
+	public long writeJdk() {
+		Lock writeLock = jdkReadWriteLock.writeLock();
+		writeLock.lock();
+		try {
+			return ++value;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.concurrent.ScratchArena;
+import com.badlogic.gdx.concurrent.ThreadLocalArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access cost of {@link ThreadLocalArray}, compared to a plain {@link ThreadLocal}, and to borrowing a
+ * temporary array from a {@link ScratchArena}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ThreadLocalArrayBenchmark {
+
+	public static class Scratch {
+		float value;
+	}
+
+	private final ThreadLocalArray<Scratch> threadLocalArray =
+			new ThreadLocalArray<>(16, Scratch.class, Scratch::new);
+
+	private final ThreadLocal<Scratch[]> threadLocal = ThreadLocal.withInitial(() -> {
+		Scratch[] values = new Scratch[16];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = new Scratch();
+		}
+		return values;
+	});
+
+	@Benchmark
+	public float threadLocalArray() {
+		Scratch[] values = threadLocalArray.get();
+		return values[0].value += 1.0f;
+	}
+
+	@Benchmark
+	public float threadLocal() {
+		Scratch[] values = threadLocal.get();
+		return values[0].value += 1.0f;
+	}
+
+	@Benchmark
+	public float scratchArena() {
+		ScratchArena arena = ScratchArena.get();
+		int mark = arena.mark();
+		try {
+			float[] values = arena.floats(16);
+			return values[0] += 1.0f;
+		} finally {
+			arena.reset(mark);
+		}
+	}
+
+}
@@ -1,5 +1,16 @@
 package com.badlogic.gdx.checksum;
 
+import com.badlogic.gdx.concurrent.AsyncTask;
+import com.badlogic.gdx.concurrent.AsyncTaskException;
+import com.badlogic.gdx.concurrent.AsyncTaskExecutor;
+import com.badlogic.gdx.concurrent.AsyncTaskJob;
+import com.badlogic.gdx.concurrent.ScratchArena;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 
 public class CRC32 {
@@ -41,6 +52,15 @@ public class CRC32 {
 			0xbdbdf21c,	0xcabac28a,	0x53b39330,	0x24b4a3a6,	0xbad03605,	0xcdd70693,	0x54de5729,	0x23d967bf,
 			0xb3667a2e,	0xc4614ab8,	0x5d681b02,	0x2a6f2b94,	0xb40bbe37,	0xc30c8ea1,	0x5a05df1b,	0x2d02ef8d };
 
+	private static final int POLYNOMIAL = 0xedb88320;
+
+	private static final int slices[] = SlicingCRC.createSlices(table);
+
+	/**
+	 * Default chunk size of {@link CRC32#calculateParallel(FileChannel, AsyncTaskExecutor)}.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+
 	private int value;
 
 	public static final CRC32 Zero = CRC32.valueOf(0);
@@ -112,20 +132,179 @@ public class CRC32 {
 		return CRC32.calculate(checksum, text.getBytes(charset));
 	}
 
+	/**
+	 * Updates the checksum with {@code length} bytes of the buffer. Eight bytes are processed per iteration,
+	 * using the slicing-by-8 algorithm.
+	 */
 	public static CRC32 update(CRC32 checksum, byte buffer[], int offset, int length) {
-		checksum.value = ~checksum.value;
+		checksum.value = SlicingCRC.update(slices, checksum.value, buffer, offset, length);
+		return checksum;
+	}
 
-		for (int i = offset; i < offset + length; ++i)
-		{
-			checksum.value = (checksum.value >>> 8) ^ table[buffer[i] ^ (checksum.value & 0x000000ff)];
-		}
+	/**
+	 * Updates the checksum with the remaining bytes of the buffer. Upon return, the buffer's position is
+	 * equal to its limit.
+	 * <p>
+	 * Heap buffers are read from their backing array. Direct buffers are read from native memory, without
+	 * copying.
+	 */
+	public static CRC32 update(CRC32 checksum, ByteBuffer buffer) {
+		checksum.value = SlicingCRC.update(slices, checksum.value, buffer);
+		return checksum;
+	}
 
-		checksum.value = ~checksum.value;
+	public static CRC32 calculate(ByteBuffer buffer) {
+		return CRC32.update(new CRC32(0), buffer);
+	}
 
+	/**
+	 * Combines two checksums. If {@code checksum} has been calculated from a block A, and {@code other} from a
+	 * block B of {@code otherLength} bytes, {@code checksum} is set to the checksum of A followed by B.
+	 */
+	public static CRC32 combine(CRC32 checksum, CRC32 other, long otherLength) {
+		checksum.value = combine(checksum.value, other.value, otherLength);
 		return checksum;
 	}
 
+	/**
+	 * Combines two CRC values, see {@link CRC32#combine(CRC32, CRC32, long)}. The cost is logarithmic in
+	 * {@code lengthB}.
+	 */
+	public static int combine(int crcA, int crcB, long lengthB) {
+		return SlicingCRC.combine(POLYNOMIAL, crcA, crcB, lengthB);
+	}
+
+	/**
+	 * Calculates the checksum of a whole file in parallel, using {@link CRC32#DEFAULT_CHUNK_SIZE}.
+	 *
+	 * @see CRC32#calculateParallel(FileChannel, AsyncTaskExecutor, int)
+	 */
+	public static CRC32 calculateParallel(FileChannel channel, AsyncTaskExecutor executor)
+			throws IOException, InterruptedException {
+		return calculateParallel(channel, executor, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Calculates the checksum of a whole file in parallel. The file is split into chunks, which are read and
+	 * checksummed by the executor's threads. The results are then combined, giving the same value as a
+	 * sequential pass.
+	 * <p>
+	 * Chunks are read with positional reads, so the channel's position is not modified. Files not larger than
+	 * one chunk, or if no executor is given, are checksummed on the calling thread.
+	 */
+	public static CRC32 calculateParallel(FileChannel channel, AsyncTaskExecutor executor, int chunkSize)
+			throws IOException, InterruptedException {
+
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+		}
+
+		long size = channel.size();
+
+		if (executor == null || size <= chunkSize) {
+			return valueOf(ChunkJob.checksum(channel, 0L, size));
+		}
+
+		int chunks = (int) ((size + chunkSize - 1) / chunkSize);
+		ChunkJob[] jobs = new ChunkJob[chunks];
+		Array<AsyncTask<?>> tasks = new Array<>(chunks);
+
+		for (int i = 0; i < chunks; i++) {
+			long position = (long) i * chunkSize;
+			jobs[i] = new ChunkJob(channel, position, Math.min(chunkSize, size - position));
+			tasks.add(new AsyncTask<>(jobs[i], AsyncTask.Completion.SIGNAL));
+		}
+
+		try {
+			executor.executeAll(tasks).awaitAll();
+		} catch (AsyncTaskException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+
+		int crc = 0;
+
+		for (ChunkJob job : jobs) {
+			crc = combine(crc, job.crc, job.length);
+		}
+
+		return valueOf(crc);
+	}
+
 	public static CRC32 updateString(CRC32 checksum, String text) {
 		return update(checksum, text.getBytes(charset), 0, text.length());
 	}
+
+	/**
+	 * Reads and checksums one chunk of a file, see {@link CRC32#calculateParallel(FileChannel, AsyncTaskExecutor)}.
+	 */
+	private static class ChunkJob implements AsyncTaskJob<ChunkJob> {
+
+		private static final int BUFFER_SIZE = 1 << 20;
+
+		private final FileChannel channel;
+		private final long position;
+		private final long length;
+
+		private int crc;
+
+		ChunkJob(FileChannel channel, long position, long length) {
+			this.channel = channel;
+			this.position = position;
+			this.length = length;
+		}
+
+		@Override
+		public ChunkJob call() throws Exception {
+			crc = checksum(channel, position, length);
+			return this;
+		}
+
+		@Override
+		public void completed() {
+
+		}
+
+		/**
+		 * Checksums a range of the file, reading it into scratch memory of the calling thread.
+		 */
+		static int checksum(FileChannel channel, long position, long length) throws IOException {
+
+			ScratchArena arena = ScratchArena.get();
+			int mark = arena.mark();
+
+			try {
+
+				ByteBuffer buffer = arena.bytes((int) Math.min(BUFFER_SIZE, Math.max(length, 1L)));
+				CRC32 checksum = valueOf(0);
+
+				long end = position + length;
+
+				while (position < end) {
+
+					buffer.clear();
+					buffer.limit((int) Math.min(buffer.limit(), end - position));
+
+					int read = channel.read(buffer, position);
+
+					if (read < 0) {
+						throw new EOFException("Unexpected end of file at position " + position);
+					}
+
+					buffer.flip();
+					update(checksum, buffer);
+
+					position += read;
+				}
+
+				return checksum.value;
+
+			} finally {
+				arena.reset(mark);
+			}
+		}
+	}
+
 }
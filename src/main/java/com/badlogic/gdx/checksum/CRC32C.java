@@ -0,0 +1,278 @@
+package com.badlogic.gdx.checksum;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.zip.Checksum;
+
+/**
+ * CRC-32C checksum, using the Castagnoli polynomial. The API mirrors {@link CRC32}.
+ * <p>
+ * On JDK 9+, checksums are computed by {@code java.util.zip.CRC32C}, which is intrinsified by the JIT to use
+ * hardware CRC instructions if available. On older runtimes, or for very small inputs, a slicing-by-8 table
+ * implementation is used. Both give identical results.
+ * <p>
+ * The JDK class can't continue from an arbitrary checksum value. To update a non-zero checksum, it is first
+ * fed four bytes which are computed to bring its internal state to that value.
+ */
+public class CRC32C {
+
+	private static final int POLYNOMIAL = 0x82f63b78;
+
+	private static final int table[] = SlicingCRC.createTable(POLYNOMIAL);
+	private static final int slices[] = SlicingCRC.createSlices(table);
+
+	/**
+	 * Maps the top byte of each table entry back to its index. The top bytes are distinct for any CRC
+	 * polynomial.
+	 */
+	private static final byte inverseTop[] = createInverseTop(table);
+
+	/**
+	 * Inputs smaller than this are always processed with the lookup tables.
+	 */
+	private static final int INTRINSIC_MIN_LENGTH = 64;
+
+	private static final MethodHandle newIntrinsic;
+	private static final MethodHandle updateIntrinsic;
+
+	private static final ThreadLocal<Intrinsic> intrinsics;
+
+	private int value;
+
+	public static final CRC32C Zero = CRC32C.valueOf(0);
+
+	private static final Charset charset = Charset.defaultCharset();
+
+	private CRC32C(int value) {
+		this.value = value;
+	}
+
+	public boolean equals(int value) {
+		return this.value == value;
+	}
+
+	public boolean equals(CRC32C checksum) {
+		return this.value == checksum.value;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		return (object instanceof CRC32C) && equals((CRC32C) object);
+	}
+
+	@Override
+	public int hashCode() {
+		return value;
+	}
+
+	public byte[] getHash() {
+		return new byte[] {
+				(byte)(value >>> 24),
+				(byte)(value >>> 16),
+				(byte)(value >>> 8),
+				(byte)value };
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%08x", value);
+	}
+
+	/**
+	 * Returns true if the JDK implementation is used.
+	 */
+	public static boolean isIntrinsic() {
+		return intrinsics != null;
+	}
+
+	public static CRC32C reset(CRC32C checksum) {
+		checksum.value = 0;
+		return checksum;
+	}
+
+	public static boolean isNullOrZero(CRC32C checksum) {
+		return checksum == null || checksum.value == 0;
+	}
+
+	public static CRC32C valueOf(int value) {
+		return new CRC32C(value);
+	}
+
+	public static CRC32C calculate(byte[] buffer) {
+		return CRC32C.update(new CRC32C(0), buffer, 0, buffer.length);
+	}
+
+	public static CRC32C calculate(CRC32C checksum, byte[] buffer) {
+		checksum.value = 0;
+		return CRC32C.update(checksum, buffer, 0, buffer.length);
+	}
+
+	public static CRC32C calculate(ByteBuffer buffer) {
+		return CRC32C.update(new CRC32C(0), buffer);
+	}
+
+	public static CRC32C calculateString(String text) {
+		return CRC32C.calculate(text.getBytes(charset));
+	}
+
+	public static CRC32C calculateString(CRC32C checksum, String text) {
+		return CRC32C.calculate(checksum, text.getBytes(charset));
+	}
+
+	public static CRC32C update(CRC32C checksum, byte buffer[], int offset, int length) {
+
+		if (intrinsics == null || length < INTRINSIC_MIN_LENGTH) {
+			checksum.value = SlicingCRC.update(slices, checksum.value, buffer, offset, length);
+			return checksum;
+		}
+
+		Checksum intrinsic = intrinsics.get().begin(checksum.value);
+		intrinsic.update(buffer, offset, length);
+		checksum.value = (int) intrinsic.getValue();
+
+		return checksum;
+	}
+
+	/**
+	 * Updates the checksum with the remaining bytes of the buffer. Upon return, the buffer's position is
+	 * equal to its limit. Direct buffers are read without copying.
+	 */
+	public static CRC32C update(CRC32C checksum, ByteBuffer buffer) {
+
+		if (intrinsics == null || buffer.remaining() < INTRINSIC_MIN_LENGTH) {
+			checksum.value = SlicingCRC.update(slices, checksum.value, buffer);
+			return checksum;
+		}
+
+		Checksum intrinsic = intrinsics.get().begin(checksum.value);
+
+		try {
+			updateIntrinsic.invokeExact(intrinsic, buffer);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+
+		checksum.value = (int) intrinsic.getValue();
+
+		return checksum;
+	}
+
+	public static CRC32C updateString(CRC32C checksum, String text) {
+		byte[] bytes = text.getBytes(charset);
+		return update(checksum, bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Combines two checksums. If {@code checksum} has been calculated from a block A, and {@code other} from a
+	 * block B of {@code otherLength} bytes, {@code checksum} is set to the checksum of A followed by B.
+	 */
+	public static CRC32C combine(CRC32C checksum, CRC32C other, long otherLength) {
+		checksum.value = combine(checksum.value, other.value, otherLength);
+		return checksum;
+	}
+
+	public static int combine(int crcA, int crcB, long lengthB) {
+		return SlicingCRC.combine(POLYNOMIAL, crcA, crcB, lengthB);
+	}
+
+	private static byte[] createInverseTop(int[] table) {
+		byte[] inverse = new byte[256];
+		for (int n = 0; n < 256; n++) {
+			inverse[table[n] >>> 24] = (byte) n;
+		}
+		return inverse;
+	}
+
+	/**
+	 * Per-thread instance of the JDK implementation.
+	 */
+	private static final class Intrinsic {
+
+		final Checksum checksum;
+		final byte[] prefix = new byte[4];
+
+		Intrinsic(Checksum checksum) {
+			this.checksum = checksum;
+		}
+
+		/**
+		 * Resets the JDK checksum so that it continues from the given value.
+		 */
+		Checksum begin(int value) {
+
+			checksum.reset();
+
+			if (value != 0) {
+				setPrefix(value);
+				checksum.update(prefix, 0, 4);
+			}
+
+			return checksum;
+		}
+
+		/**
+		 * Computes four bytes which bring the CRC register from its initial state to {@code ~value}.
+		 * <p>
+		 * After four bytes, the register only depends on the four table entries looked up, not on its initial
+		 * state. Those entries are found backwards from the target value, by their top byte. Then the input
+		 * bytes which select them are computed forwards from the initial state.
+		 */
+		private void setPrefix(int value) {
+
+			int target = ~value;
+			int[] indices = new int[4];
+
+			for (int k = 3; k >= 0; k--) {
+				int index = inverseTop[target >>> 24] & 0xff;
+				indices[k] = index;
+				target = (target ^ table[index]) << 8;
+			}
+
+			int crc = ~0;
+
+			for (int k = 0; k < 4; k++) {
+				prefix[k] = (byte) ((crc ^ indices[k]) & 0xff);
+				crc = (crc >>> 8) ^ table[indices[k]];
+			}
+		}
+	}
+
+	static {
+
+		MethodHandle constructor = null;
+		MethodHandle update = null;
+
+		try {
+			Class<?> type = Class.forName("java.util.zip.CRC32C");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+			constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Checksum.class));
+
+			update = lookup.findVirtual(type, "update", MethodType.methodType(void.class, ByteBuffer.class))
+					.asType(MethodType.methodType(void.class, Checksum.class, ByteBuffer.class));
+
+		} catch (ReflectiveOperationException ignored) {
+			// JDK 8, use table implementation
+			constructor = null;
+			update = null;
+		}
+
+		newIntrinsic = constructor;
+		updateIntrinsic = update;
+
+		intrinsics = newIntrinsic != null ? ThreadLocal.withInitial(() -> {
+			try {
+				return new Intrinsic((Checksum) newIntrinsic.invokeExact());
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}) : null;
+	}
+
+}
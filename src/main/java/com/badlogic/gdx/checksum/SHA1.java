@@ -3,6 +3,7 @@ package com.badlogic.gdx.checksum;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.StringBuilder;
 
+import java.nio.ByteBuffer;
 import java.security.*;
 import java.util.Arrays;
 import java.util.PrimitiveIterator;
@@ -97,6 +98,21 @@ public class SHA1 {
 		return value;
 	}
 
+	/**
+	 * Updates the hash with the remaining bytes of the buffer. Upon return, the buffer's position is equal to
+	 * its limit.
+	 */
+	public static SHA1 update(SHA1 value, ByteBuffer buffer) {
+
+		if (!algorithm.isCurrent(value)) {
+			throw new GdxRuntimeException("");
+		}
+
+		algorithm.digest.get().update(buffer);
+
+		return value;
+	}
+
 	public static SHA1 submit(SHA1 value) {
 
 		if (!algorithm.isCurrent(value)) {
@@ -1,10 +1,40 @@
 package com.badlogic.gdx.checksum;
 
+import com.badlogic.gdx.concurrent.AsyncTask;
+import com.badlogic.gdx.concurrent.AsyncTaskException;
+import com.badlogic.gdx.concurrent.AsyncTaskExecutor;
+import com.badlogic.gdx.concurrent.AsyncTaskJob;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.*;
 
 import java.io.*;
-
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A table of file paths and their SHA1 hashes, compatible to the *NIX 'sha1sum' command line tool.
+ * <p>
+ * Entries are stored in a concurrent map, so files can be registered and checked from multiple threads.
+ * {@link SHA1FileTable#registerDirectory(Path, Predicate, AsyncTaskExecutor)} and
+ * {@link SHA1FileTable#checkAll(AsyncTaskExecutor)} hash files in parallel on the executor's threads.
+ * <p>
+ * Along with the hash, the size, modification time and file key (the inode on *NIX systems) of each file are
+ * stored. A file whose attributes haven't changed since it was hashed is reported as unmodified without
+ * reading it. The attributes are saved to a separate file next to the .sha1sum file, so that the .sha1sum
+ * file itself stays compatible.
+ * <p>
+ * A file modified shortly before, or while, it was hashed may be modified again without changing its
+ * modification time, depending on the timestamp resolution of the file system. Like git does for "racily
+ * clean" index entries, such files are always hashed again, until their attributes have been stored at a
+ * later time.
+ */
 public class SHA1FileTable {
 
 	public enum CheckFileResult {
@@ -16,29 +46,95 @@ public class SHA1FileTable {
 	}
 
 	private static class Entry {
-		String filePath;
-		SHA1 sha1;
-		CheckFileResult checkResult;
+		final String filePath;
+		volatile SHA1 sha1;
+		volatile Stat stat;
+		volatile CheckFileResult checkResult;
 
-		Entry(String filePath, SHA1 sha1) {
+		Entry(String filePath, SHA1 sha1, Stat stat) {
 			this.filePath = filePath;
 			this.sha1 = sha1;
+			this.stat = stat;
 			this.checkResult = CheckFileResult.Unchecked;
 		}
 	}
 
-	private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+	/**
+	 * File attributes at the time the file was hashed.
+	 */
+	private static class Stat {
+		final long size;
+		final long modifiedNanos;
+		final String fileKey;
+
+		/**
+		 * Wall clock time the attributes have been read, right before hashing the file.
+		 */
+		final long statNanos;
+
+		Stat(long size, long modifiedNanos, String fileKey, long statNanos) {
+			this.size = size;
+			this.modifiedNanos = modifiedNanos;
+			this.fileKey = fileKey;
+			this.statNanos = statNanos;
+		}
+
+		static Stat of(Path path) throws IOException {
+			long now = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			Object fileKey = attributes.fileKey();
+			return new Stat(attributes.size(),
+					attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+					fileKey != null ? fileKey.toString().replace(' ', '_') : "-",
+					now);
+		}
+
+		boolean equals(Stat other) {
+			return other != null
+					&& size == other.size
+					&& modifiedNanos == other.modifiedNanos
+					&& fileKey.equals(other.fileKey);
+		}
+
+		/**
+		 * Returns true if the file was modified within {@link SHA1FileTable#RACY_NANOS} of reading its
+		 * attributes. A later modification might then not change the modification time.
+		 */
+		boolean isRacy() {
+			return modifiedNanos >= statNanos - RACY_NANOS;
+		}
+	}
+
+	/**
+	 * Suffix of the file which stores the file attributes, appended to the name of the .sha1sum file.
+	 */
+	public static final String STAT_FILE_SUFFIX = ".stat";
+
+	/**
+	 * Timestamp resolution assumed for file systems, which is 2 seconds for FAT.
+	 */
+	private static final long RACY_NANOS = TimeUnit.SECONDS.toNanos(2L);
+
+	/**
+	 * Number of files hashed by one task of the parallel functions.
+	 */
+	private static final int BATCH_SIZE = 32;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
 
 	public SHA1FileTable() throws IOException {
 		this(null);
 	}
 
 	public int size() {
-		return entries.size;
+		return entries.size();
 	}
 
 	/**
-	 * Initializes the file/hash table from a .sha1sum text file.
+	 * Initializes the file/hash table from a .sha1sum text file. If there is a file with the same name plus
+	 * {@link SHA1FileTable#STAT_FILE_SUFFIX}, the file attributes stored in it are loaded as well. Attributes
+	 * are only used if they have been stored for the same hash. Files without attributes are hashed again
+	 * when checked.
 	 */
 	public SHA1FileTable(FileHandle sha1sumFile) throws IOException {
 
@@ -56,22 +152,54 @@ public class SHA1FileTable {
 					String path = split[split.length - 1];
 					String digest = split[0];
 
-					entries.put(path, new Entry(path, SHA1.valueOf(digest)));
+					entries.put(path, new Entry(path, SHA1.valueOf(digest), null));
+
+				});
+
+		FileHandle statFile = FileUtils.newFileHandle(statFile(sha1sumFile), sha1sumFile.type());
+
+		if (!statFile.exists()) {
+			return;
+		}
+
+		TextFileLineReader.readLines(
+				statFile,
+				new String[] { "^[0-9a-fA-F]+\\s+[0-9]+\\s+-?[0-9]+\\s+-?[0-9]+\\s+[\\S]+\\s+[\\S]+$" },
+				line -> {
+
+					String[] split = line.split("\\s+");
+
+					Entry entry = entries.get(split[5]);
+
+					// ignore attributes stored for a different hash, e.g. if the .sha1sum file has been replaced
+					if (entry != null && entry.sha1.equals(SHA1.valueOf(split[0]))) {
+						entry.stat = new Stat(Long.parseLong(split[1]), Long.parseLong(split[2]), split[4],
+								Long.parseLong(split[3]));
+					}
 
 				});
 	}
 
 	/**
-	 * Saves the file/hash table as .sha1sum text file. The output format is compatible to the *NIX 'sha1sum'
-	 * command line tool.
+	 * Saves the file/hash table as .sha1sum text file, and the file attributes to a second file. The output
+	 * format of the .sha1sum file is compatible to the *NIX 'sha1sum' command line tool.
 	 */
 	public void save(FileHandle sha1sumFile) throws IOException {
+		save(sha1sumFile, true);
+	}
 
-		BufferedWriter writer = new BufferedWriter(new FileWriter(sha1sumFile.file()));
+	/**
+	 * Saves the file/hash table as .sha1sum text file, optionally without file attributes. In that case, an
+	 * existing file with attributes is deleted.
+	 */
+	public void save(FileHandle sha1sumFile, boolean saveStat) throws IOException {
 
-		Array<Entry> sortedValues = entries.values().toArray();
+		Array<Entry> sortedValues = new Array<>(false, entries.size(), Entry.class);
+		entries.values().forEach(sortedValues::add);
 		sortedValues.sort((value1, value2) -> value1.filePath.compareTo(value2.filePath));
 
+		BufferedWriter writer = new BufferedWriter(new FileWriter(sha1sumFile.file()));
+
 		for (Entry entry : sortedValues) {
 
 			writer.write(entry.sha1.toString());
@@ -83,6 +211,40 @@ public class SHA1FileTable {
 
 		writer.flush();
 		writer.close();
+
+		if (!saveStat) {
+			// an old file would not match the hashes just saved
+			Files.deleteIfExists(statFile(sha1sumFile).toPath());
+			return;
+		}
+
+		writer = new BufferedWriter(new FileWriter(statFile(sha1sumFile)));
+
+		for (Entry entry : sortedValues) {
+
+			Stat stat = entry.stat;
+
+			if (stat == null) {
+				continue;
+			}
+
+			writer.write(entry.sha1.toString());
+			writer.write(" ");
+			writer.write(Long.toString(stat.size));
+			writer.write(" ");
+			writer.write(Long.toString(stat.modifiedNanos));
+			writer.write(" ");
+			writer.write(Long.toString(stat.statNanos));
+			writer.write(" ");
+			writer.write(stat.fileKey);
+			writer.write(" ");
+			writer.write(entry.filePath);
+			writer.write("\n");
+
+		}
+
+		writer.flush();
+		writer.close();
 	}
 
 	/**
@@ -90,49 +252,93 @@ public class SHA1FileTable {
 	 */
 	public CheckFileResult checkFile(File file) {
 
-		if (!isKnownFile(file)) {
+		Entry entry = entries.get(file.getPath());
+
+		if (entry == null) {
 			return CheckFileResult.NoSHA1SumFound;
 		}
 
-		try {
-
-			Entry entry = entries.get(file.getPath());
+		return check(entry);
+	}
 
-			if (entry.checkResult != CheckFileResult.Unchecked) {
-				// no need to hash more than once
-				return entry.checkResult;
-			}
+	/**
+	 * Checks all files in the table which have not been checked yet. Files are hashed in parallel, by the
+	 * threads of the executor. Results can be queried with {@link SHA1FileTable#checkFile(File)} afterwards.
+	 *
+	 * @param executor may be null to hash all files on the calling thread
+	 * @return the number of files which are modified, have not been found, or could not be read
+	 */
+	public int checkAll(AsyncTaskExecutor executor) throws InterruptedException {
 
-			SHA1 sha1 = FileUtils.hashStream(new FileInputStream(file));
+		Array<Entry> unchecked = new Array<>(false, 1024, Entry.class);
 
-			if (sha1.equals(entry.sha1)) {
-				entry.checkResult = CheckFileResult.Unmodified;
-			} else {
-				entry.checkResult = CheckFileResult.Modified;
+		for (Entry entry : entries.values()) {
+			if (entry.checkResult == CheckFileResult.Unchecked) {
+				unchecked.add(entry);
 			}
+		}
 
-			return entry.checkResult;
-
+		try {
+			runBatches(executor, unchecked.size, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					check(unchecked.items[i]);
+				}
+			});
 		} catch (IOException e) {
-			return CheckFileResult.FileNotFound;
+			// not thrown by check()
+			throw new GdxRuntimeException(e);
+		}
+
+		int changed = 0;
+
+		for (Entry entry : entries.values()) {
+			if (entry.checkResult != CheckFileResult.Unmodified) {
+				changed++;
+			}
 		}
 
+		return changed;
 	}
 
 	/**
 	 * Adds a file and its hash to the SHA1 table.
 	 */
 	public void registerFile(File file) throws IOException {
+		register(file.toPath(), file.getPath());
+	}
 
-		SHA1 sha1 = FileUtils.hashStream(new FileInputStream(file));
+	/**
+	 * Walks a directory tree, and adds all regular files accepted by the filter to the SHA1 table. Files are
+	 * hashed in parallel, by the threads of the executor.
+	 * <p>
+	 * Files are registered with their path relative to the current working directory, if the root path is
+	 * relative.
+	 *
+	 * @param filter may be null to register all files
+	 * @param executor may be null to hash all files on the calling thread
+	 * @return the number of files registered
+	 */
+	public int registerDirectory(Path root, Predicate<Path> filter, AsyncTaskExecutor executor)
+			throws IOException, InterruptedException {
 
-		if (isKnownFile(file)) {
-			Entry entry = entries.get(file.getPath());
-			entry.sha1 = sha1;
-		} else {
-			Entry entry = new Entry(file.getPath(), sha1);
-			entries.put(file.getPath(), entry);
+		Array<Path> files = new Array<>(false, 1024, Path.class);
+
+		try (Stream<Path> paths = Files.walk(root)) {
+			paths.filter(Files::isRegularFile)
+					.filter(path -> filter == null || filter.test(path))
+					.forEach(files::add);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
 		}
+
+		runBatches(executor, files.size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				Path path = files.items[i];
+				register(path, path.toString());
+			}
+		});
+
+		return files.size;
 	}
 
 	/**
@@ -140,9 +346,7 @@ public class SHA1FileTable {
 	 */
 	@Deprecated
 	public void unregisterFile(File file) {
-		if (isKnownFile(file)) {
-			entries.remove(file.getPath());
-		}
+		entries.remove(file.getPath());
 	}
 
 	public boolean hasUncheckedFiles() {
@@ -154,8 +358,126 @@ public class SHA1FileTable {
 		return false;
 	}
 
-	private boolean isKnownFile(File file) {
-		return entries.containsKey(file.getPath());
+	private CheckFileResult check(Entry entry) {
+
+		if (entry.checkResult != CheckFileResult.Unchecked) {
+			// no need to hash more than once
+			return entry.checkResult;
+		}
+
+		try {
+
+			Path path = Paths.get(entry.filePath);
+			Stat stat = Stat.of(path);
+
+			Stat known = entry.stat;
+
+			if (stat.equals(known) && !known.isRacy()) {
+				// attributes not changed, no need to hash
+				entry.checkResult = CheckFileResult.Unmodified;
+				return entry.checkResult;
+			}
+
+			SHA1 sha1 = FileUtils.hashFile(path);
+
+			if (sha1.equals(entry.sha1)) {
+				// only touched, or racily clean: remember the new attributes
+				entry.stat = stat;
+				entry.checkResult = CheckFileResult.Unmodified;
+			} else {
+				entry.checkResult = CheckFileResult.Modified;
+			}
+
+		} catch (NoSuchFileException e) {
+			entry.checkResult = CheckFileResult.FileNotFound;
+		} catch (IOException e) {
+			// e.g. no permission, or a transient read error: leave unchecked, to try again next time
+			return CheckFileResult.FileNotFound;
+		}
+
+		return entry.checkResult;
+	}
+
+	private void register(Path path, String filePath) throws IOException {
+
+		// read attributes first, so that changes made while hashing are detected next time
+		Stat stat = Stat.of(path);
+		SHA1 sha1 = FileUtils.hashFile(path);
+
+		entries.compute(filePath, (key, entry) -> {
+			if (entry == null) {
+				return new Entry(filePath, sha1, stat);
+			}
+			entry.sha1 = sha1;
+			entry.stat = stat;
+			return entry;
+		});
+	}
+
+	private static File statFile(FileHandle sha1sumFile) {
+		return new File(sha1sumFile.file().getPath() + STAT_FILE_SUFFIX);
+	}
+
+	@FunctionalInterface
+	private interface Batch {
+		void run(int from, int to) throws IOException;
+	}
+
+	/**
+	 * Splits {@code [0, count)} into batches, and runs them as one task group. Without an executor, all of
+	 * them are run on the calling thread.
+	 */
+	private static void runBatches(AsyncTaskExecutor executor, int count, Batch batch)
+			throws IOException, InterruptedException {
+
+		if (count == 0) {
+			return;
+		}
+
+		if (executor == null) {
+			batch.run(0, count);
+			return;
+		}
+
+		Array<AsyncTask<?>> tasks = new Array<>((count + BATCH_SIZE - 1) / BATCH_SIZE);
+
+		for (int from = 0; from < count; from += BATCH_SIZE) {
+			BatchJob job = new BatchJob(batch, from, Math.min(from + BATCH_SIZE, count));
+			tasks.add(new AsyncTask<>(job, AsyncTask.Completion.SIGNAL));
+		}
+
+		try {
+			executor.executeAll(tasks).awaitAll();
+		} catch (AsyncTaskException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static class BatchJob implements AsyncTaskJob<BatchJob> {
+
+		private final Batch batch;
+		private final int from;
+		private final int to;
+
+		BatchJob(Batch batch, int from, int to) {
+			this.batch = batch;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public BatchJob call() throws Exception {
+			batch.run(from, to);
+			return this;
+		}
+
+		@Override
+		public void completed() {
+
+		}
 	}
 
 }
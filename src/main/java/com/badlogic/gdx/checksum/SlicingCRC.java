@@ -0,0 +1,214 @@
+package com.badlogic.gdx.checksum;
+
+import com.badlogic.gdx.utils.Memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Table-driven implementation of reflected 32 bit CRCs, shared by {@link CRC32} and {@link CRC32C}.
+ * <p>
+ * Eight bytes are processed per iteration with the slicing-by-8 algorithm. Values passed to and returned
+ * from these functions are finalized checksums, not the inverted register value.
+ */
+final class SlicingCRC {
+
+	private static final boolean bigEndian = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+	/**
+	 * Creates the byte-wise lookup table of a reflected polynomial.
+	 */
+	static int[] createTable(int polynomial) {
+
+		int[] table = new int[256];
+
+		for (int n = 0; n < 256; n++) {
+			int c = n;
+			for (int k = 0; k < 8; k++) {
+				c = (c & 1) != 0 ? polynomial ^ (c >>> 1) : c >>> 1;
+			}
+			table[n] = c;
+		}
+
+		return table;
+	}
+
+	/**
+	 * Builds the tables for slicing-by-8. Table {@code k} holds the CRC of each byte value, followed by
+	 * {@code k} zero bytes. Table 0 is a copy of the byte-wise table.
+	 */
+	static int[] createSlices(int[] table) {
+
+		int[] slices = new int[8 * 256];
+
+		System.arraycopy(table, 0, slices, 0, 256);
+
+		for (int k = 1; k < 8; k++) {
+			for (int n = 0; n < 256; n++) {
+				int crc = slices[(k - 1) * 256 + n];
+				slices[k * 256 + n] = (crc >>> 8) ^ table[crc & 0xff];
+			}
+		}
+
+		return slices;
+	}
+
+	static int update(int[] slices, int value, byte[] buffer, int offset, int length) {
+
+		int crc = ~value;
+		int i = offset;
+		int end = offset + length;
+
+		for (; end - i >= 8; i += 8) {
+
+			int lo = (buffer[i] & 0xff)
+					| (buffer[i + 1] & 0xff) << 8
+					| (buffer[i + 2] & 0xff) << 16
+					| (buffer[i + 3] & 0xff) << 24;
+
+			int hi = (buffer[i + 4] & 0xff)
+					| (buffer[i + 5] & 0xff) << 8
+					| (buffer[i + 6] & 0xff) << 16
+					| (buffer[i + 7] & 0xff) << 24;
+
+			crc = slice8(slices, crc ^ lo, hi);
+		}
+
+		for (; i < end; i++) {
+			crc = (crc >>> 8) ^ slices[(buffer[i] ^ crc) & 0xff];
+		}
+
+		return ~crc;
+	}
+
+	/**
+	 * Updates the checksum with the remaining bytes of the buffer, and sets its position to the limit.
+	 * <p>
+	 * Heap buffers are read from their backing array. Direct buffers are read from native memory, without
+	 * copying.
+	 */
+	static int update(int[] slices, int value, ByteBuffer buffer) {
+
+		int position = buffer.position();
+		int length = buffer.limit() - position;
+
+		if (buffer.hasArray()) {
+			value = update(slices, value, buffer.array(), buffer.arrayOffset() + position, length);
+		} else if (buffer.isDirect()) {
+			value = updateDirect(slices, value, Memory.getAddress(buffer) + position, length);
+		} else {
+			// read-only heap buffer
+			int crc = ~value;
+			for (int i = position; i < position + length; i++) {
+				crc = (crc >>> 8) ^ slices[(buffer.get(i) ^ crc) & 0xff];
+			}
+			value = ~crc;
+		}
+
+		buffer.position(position + length);
+
+		return value;
+	}
+
+	private static int updateDirect(int[] slices, int value, long address, int length) {
+
+		int crc = ~value;
+		long end = address + length;
+
+		for (; end - address >= 8; address += 8) {
+
+			long bytes = Memory.getLong(address);
+
+			if (bigEndian) {
+				bytes = Long.reverseBytes(bytes);
+			}
+
+			crc = slice8(slices, crc ^ (int) bytes, (int) (bytes >>> 32));
+		}
+
+		for (; address < end; address++) {
+			crc = (crc >>> 8) ^ slices[(Memory.getByte(address) ^ crc) & 0xff];
+		}
+
+		return ~crc;
+	}
+
+	/**
+	 * Processes eight bytes, given as two little-endian ints. The first one must have been combined with the
+	 * current CRC register already.
+	 */
+	private static int slice8(int[] slices, int lo, int hi) {
+		return slices[7 * 256 + (lo & 0xff)]
+				^ slices[6 * 256 + ((lo >>> 8) & 0xff)]
+				^ slices[5 * 256 + ((lo >>> 16) & 0xff)]
+				^ slices[4 * 256 + (lo >>> 24)]
+				^ slices[3 * 256 + (hi & 0xff)]
+				^ slices[2 * 256 + ((hi >>> 8) & 0xff)]
+				^ slices[256 + ((hi >>> 16) & 0xff)]
+				^ slices[hi >>> 24];
+	}
+
+	/**
+	 * Combines the checksums of two adjacent blocks A and B into the checksum of A followed by B.
+	 * <p>
+	 * This appends {@code lengthB} zero bytes to the first CRC value, using multiplication with a GF(2)
+	 * matrix which is squared for each bit of the length, so the cost is logarithmic in {@code lengthB}.
+	 */
+	static int combine(int polynomial, int crcA, int crcB, long lengthB) {
+
+		if (lengthB <= 0L) {
+			return crcA;
+		}
+
+		int[] even = new int[32];
+		int[] odd = new int[32];
+
+		// operator for one zero bit
+		odd[0] = polynomial;
+		for (int n = 1, row = 1; n < 32; n++, row <<= 1) {
+			odd[n] = row;
+		}
+
+		// operators for two, then four zero bits
+		gf2MatrixSquare(even, odd);
+		gf2MatrixSquare(odd, even);
+
+		// apply zero bytes, squaring the operator for each bit of the length
+		do {
+			gf2MatrixSquare(even, odd);
+			if ((lengthB & 1L) != 0L) {
+				crcA = gf2MatrixTimes(even, crcA);
+			}
+			lengthB >>>= 1;
+
+			if (lengthB == 0L) {
+				break;
+			}
+
+			gf2MatrixSquare(odd, even);
+			if ((lengthB & 1L) != 0L) {
+				crcA = gf2MatrixTimes(odd, crcA);
+			}
+			lengthB >>>= 1;
+		} while (lengthB != 0L);
+
+		return crcA ^ crcB;
+	}
+
+	private static int gf2MatrixTimes(int[] matrix, int vector) {
+		int sum = 0;
+		for (int i = 0; vector != 0; i++, vector >>>= 1) {
+			if ((vector & 1) != 0) {
+				sum ^= matrix[i];
+			}
+		}
+		return sum;
+	}
+
+	private static void gf2MatrixSquare(int[] square, int[] matrix) {
+		for (int n = 0; n < 32; n++) {
+			square[n] = gf2MatrixTimes(matrix, matrix[n]);
+		}
+	}
+
+}
@@ -1,39 +1,129 @@
 package com.badlogic.gdx.concurrent;
 
+import com.badlogic.gdx.profiler.Profiler;
+import com.badlogic.gdx.profiler.Sample;
+
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
- * A reentrant wrapper to {@link FutureTask}, with some additional properties to synchronize its result with the
+ * A reentrant wrapper to {@link AsyncTaskJob}, with some additional properties to synchronize its result with the
  * calling thread.
  * <p>
- * The task is (re-)scheduled for asynchronous execution with {@link AsyncTask#execute(ExecutorService)}.
+ * The task is (re-)scheduled for asynchronous execution with {@link AsyncTaskExecutor#execute(AsyncTask)}.
  * <p>
  * Upon completion, a {@link CyclicBarrier} is entered, waiting for the scheduling thread to call
  * {@link AsyncTask#await(Consumer)}. After both threads have entered the barrier, {@link AsyncTaskJob#completed()}
  * is called.
+ * <p>
+ * With {@link Completion#SIGNAL}, the task instead signals completion by changing its state. The worker thread
+ * returns to the pool immediately, and {@link AsyncTaskJob#completed()} is called by the thread calling
+ * {@link AsyncTask#await(Consumer)}.
+ * <p>
+ * With {@link Completion#QUEUE}, completed tasks are pushed to a queue owned by the {@link AsyncTaskExecutor}.
+ * {@link AsyncTaskJob#completed()} is called by {@link AsyncTaskExecutor#drainCompleted(long)}, which never
+ * blocks.
+ * <p>
+ * Tasks are queued by {@link Priority} class, and by deadline. See {@link AsyncTask#setPriority(Priority)} and
+ * {@link AsyncTask#setDeadline(long, TimeUnit)}.
+ * <p>
+ * Pending tasks can be cancelled with {@link AsyncTask#cancel()}. Cancelled tasks are removed from the executor
+ * queue if they haven't been started yet. {@link AsyncTaskJob#completed()} is not called for cancelled tasks.
  */
 public class AsyncTask<V extends AsyncTaskJob<V>> {
 
+	/**
+	 * Selects how task completion is synchronized with the scheduling thread.
+	 */
+	public enum Completion {
+		/**
+		 * The worker thread waits in a {@link CyclicBarrier} for the scheduling thread.
+		 */
+		BARRIER,
+		/**
+		 * The worker thread signals completion without waiting. No objects are allocated per execution.
+		 */
+		SIGNAL,
+		/**
+		 * Like {@link Completion#SIGNAL}, but the task is completed by
+		 * {@link AsyncTaskExecutor#drainCompleted(long)} instead of {@link AsyncTask#await(Consumer)}.
+		 */
+		QUEUE
+	}
+
+	/**
+	 * Priority classes. Each class has a latency budget: a task is expected to be started within this time
+	 * after it has been queued. Tasks are taken from the queue in order of their deadlines, so tasks of lower
+	 * priority are aged, and get their turn once they have waited for longer than their budget.
+	 */
+	public enum Priority {
+		/**
+		 * Latency-critical per-frame work. Can also be run by threads reserved for this class.
+		 */
+		CRITICAL(0L),
+		HIGH(4L),
+		NORMAL(16L),
+		/**
+		 * Long running background work, e.g. path finding or streaming.
+		 */
+		BACKGROUND(250L);
+
+		final long latencyBudgetNanos;
+
+		Priority(long latencyBudgetMillis) {
+			this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMillis);
+		}
+	}
+
 	private enum State {
 		READY,
 		PENDING,
-		COMPLETED
+		RUNNING,
+		COMPLETED,
+		CANCELLED
 	}
 
 	protected final V job;
 
+	private final Completion completion;
+
 	private final CyclicBarrier completionBarrier;
 
 	private final AtomicReference<State> state = new AtomicReference<>(State.READY);
 
-	private Task task;
+	final Runner runnable = new Runner();
+
+	private Priority priority = Priority.NORMAL;
+	private long deadlineNanos = -1L;
+	private long scheduledNanos;
+	private Priority scheduledPriority = Priority.NORMAL;
+	private long scheduledDeadline;
+
+	private Throwable failure;
+	private volatile boolean cancellationRequested;
+	private volatile Thread waiter;
+
+	private AsyncTask<?> continuation;
+	private Consumer<V> mainThreadContinuation;
+
+	private AsyncTaskExecutor executor;
+	AsyncTask<?> completionNext;
+
+	private AsyncTaskGroup group;
+	private int groupIndex;
 
 	public AsyncTask(V job) {
+		this(job, Completion.BARRIER);
+	}
+
+	public AsyncTask(V job, Completion completion) {
 		this.job = job;
-		completionBarrier = new CyclicBarrier(2, this::completed);
+		this.completion = completion;
+
+		completionBarrier = completion == Completion.BARRIER ? new CyclicBarrier(2, this::completed) : null;
 	}
 
 	public boolean consumeJobPredicate(Predicate<V> consumer) {
@@ -59,102 +149,481 @@ public class AsyncTask<V extends AsyncTaskJob<V>> {
 		return true;
 	}
 
+	public Priority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Sets the priority class used for subsequent executions of this task. A pending task keeps the priority
+	 * it has been scheduled with.
+	 */
+	public void setPriority(Priority priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * Sets a deadline, relative to the time the task is scheduled, until this task should be started. This
+	 * only has an effect if it is shorter than the latency budget of the task's {@link Priority} class.
+	 */
+	public void setDeadline(long timeout, TimeUnit unit) {
+		deadlineNanos = unit.toNanos(timeout);
+	}
+
+	public void clearDeadline() {
+		deadlineNanos = -1L;
+	}
+
+	/**
+	 * Sets a task to be scheduled on the same executor after each successful execution of this task. The
+	 * continuation is scheduled by the worker thread, before this task is signalled as completed.
+	 * <p>
+	 * The continuation must be ready at that time, and needs to be completed separately.
+	 */
+	public AsyncTask<V> then(AsyncTask<?> continuation) {
+		this.continuation = continuation;
+		return this;
+	}
+
+	/**
+	 * Sets a function to be called after each successful execution of this task, right after
+	 * {@link AsyncTaskJob#completed()}, on the thread completing the task.
+	 */
+	public AsyncTask<V> thenOnMainThread(Consumer<V> continuation) {
+		this.mainThreadContinuation = continuation;
+		return this;
+	}
+
 	public boolean isReady() {
 		return state.get() == State.READY;
 	}
 
+	/**
+	 * Returns true if the task has been scheduled, but has not been finished by a worker thread yet.
+	 */
 	public boolean isPending() {
-		return state.get() == State.PENDING;
+		State s = state.get();
+		return s == State.PENDING || s == State.RUNNING;
 	}
 
 	public boolean isCompleted() {
 		return state.get() == State.COMPLETED;
 	}
 
+	public boolean isCancelled() {
+		return state.get() == State.CANCELLED;
+	}
+
+	/**
+	 * Returns true if {@link AsyncTask#cancel()} has been called during the current execution. Long running
+	 * jobs can check this to stop early.
+	 */
+	public boolean isCancellationRequested() {
+		return cancellationRequested;
+	}
+
+	/**
+	 * Requests cancellation of a pending task.
+	 * <p>
+	 * If the task has not been started yet, it is removed from the executor queue, and its job is not run.
+	 * If it is running already, cancellation is cooperative: the job can check
+	 * {@link AsyncTask#isCancellationRequested()}, and the task ends up in cancelled state if the job returns
+	 * after the request. {@link AsyncTaskJob#completed()} is not called for cancelled tasks. The task still
+	 * needs to be awaited, or drained, to become ready again.
+	 *
+	 * @return true if the task has been cancelled before it was started, false if it is not pending, or
+	 * running already
+	 */
+	public boolean cancel() {
+
+		if (state.compareAndSet(State.PENDING, State.CANCELLED)) {
+
+			cancellationRequested = true;
+
+			// null if cancelled while being scheduled, before it has been queued
+			AsyncTaskExecutor executor = this.executor;
+
+			if (executor != null && executor.remove(runnable)) {
+				// still queued, so it won't be run by any worker thread
+				signalDone();
+			}
+
+			// else, the worker thread which took the task signals it in run()
+			return true;
+		}
+
+		if (state.get() == State.RUNNING) {
+			cancellationRequested = true;
+		}
+
+		return false;
+	}
+
 	/**
-	 * Enters the task's completion barrier, waiting for {@link AsyncTaskJob#completed()} to be called.
+	 * Waits for the task to complete, then calls {@link AsyncTaskJob#completed()}. With
+	 * {@link Completion#BARRIER}, this enters the task's completion barrier.
 	 *
 	 * This function blocks execution if the task is still pending. Use {@link AsyncTask#isCompleted()}
 	 * for a non-blocking check.
 	 *
-	 * Returns the arrival index of the current thread, see {@link CyclicBarrier#await()}.
+	 * Returns the arrival index of the current thread, see {@link CyclicBarrier#await()}. With
+	 * {@link Completion#SIGNAL}, this is always 0.
+	 *
+	 * @throws AsyncTaskException if the job has thrown an exception
+	 * @throws CancellationException if the task has been cancelled
 	 */
 	public int await(Consumer<V> consumeAfterCompletion) throws InterruptedException {
 
+		checkAwait();
+		waitWhilePending(false, 0L);
+
+		return complete(consumeAfterCompletion);
+	}
+
+	/**
+	 * Waits for at most the given time for the task to complete. If it completes in time, this function
+	 * continues like {@link AsyncTask#await(Consumer)}.
+	 *
+	 * @return false if the timeout elapsed before the task completed. The task is still pending then.
+	 */
+	public boolean await(Consumer<V> consumeAfterCompletion,
+						 long timeout, TimeUnit unit) throws InterruptedException {
+
+		checkAwait();
+
+		if (!waitWhilePending(true, unit.toNanos(timeout))) {
+			return false;
+		}
+
+		complete(consumeAfterCompletion);
+
+		return true;
+	}
+
+	private void checkAwait() {
+
 		if (state.get() == State.READY) {
 			throw new IllegalStateException("Invalid task state!");
 		}
 
+		if (group != null) {
+			throw new IllegalStateException("Task is completed by AsyncTaskGroup!");
+		}
+
+		if (completion == Completion.QUEUE) {
+			throw new IllegalStateException("Task is completed by AsyncTaskExecutor.drainCompleted()!");
+		}
+	}
+
+	/**
+	 * Parks the calling thread until a worker thread has finished or dropped the task.
+	 *
+	 * @return false if the timeout elapsed
+	 */
+	private boolean waitWhilePending(boolean timed, long nanos) throws InterruptedException {
+
+		if (!isPending()) {
+			return true;
+		}
+
+		long deadline = timed ? System.nanoTime() + nanos : 0L;
+
+		waiter = Thread.currentThread();
+
 		try {
 
-			int arrivalIndex = completionBarrier.await();
+			while (isPending()) {
 
-			task.get(); // this causes an ExecutionException if there has been some error
+				if (timed) {
+					nanos = deadline - System.nanoTime();
+					if (nanos <= 0L) {
+						return false;
+					}
+					LockSupport.parkNanos(this, nanos);
+				} else {
+					LockSupport.park(this);
+				}
 
-			if (consumeAfterCompletion != null) {
-				consumeAfterCompletion.accept(job);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
 			}
 
-			if (!state.compareAndSet(State.COMPLETED, State.READY)) {
-				throw new IllegalStateException("Invalid task state!");
+		} finally {
+			waiter = null;
+		}
+
+		return true;
+	}
+
+	private int complete(Consumer<V> consumeAfterCompletion) throws InterruptedException {
+
+		int arrivalIndex = 0;
+
+		if (completion == Completion.BARRIER && state.get() == State.COMPLETED) {
+
+			try {
+				// calls completed() as barrier action
+				arrivalIndex = completionBarrier.await();
+			} catch (BrokenBarrierException e) {
+				throw new InterruptedException(e.getMessage());
 			}
 
-			return arrivalIndex;
+			group = null;
+			reset(State.COMPLETED);
 
-		} catch (BrokenBarrierException e) {
-			throw new InterruptedException(e.getMessage());
-		} catch (ExecutionException e) {
-			e.printStackTrace(System.err);
-			throw new RuntimeException("Exception thrown during execution of asynchronous task!");
+		} else if (!finish()) {
+			throw new CancellationException("Asynchronous task has been cancelled!");
 		}
+
+		if (consumeAfterCompletion != null) {
+			consumeAfterCompletion.accept(job);
+		}
+
+		return arrivalIndex;
 	}
 
 	/**
-	 * Queue the task for execution by the given {@link ExecutorService}.
+	 * Queue the task for execution by the given {@link AsyncTaskExecutor}.
 	 *
 	 * @throws IllegalStateException if the task is not ready yet, after it has been scheduled previously.
 	 */
-	void execute(ExecutorService service) {
+	void execute(AsyncTaskExecutor executor) {
 
 		// reset state
 		if (!state.compareAndSet(State.READY, State.PENDING)) {
 			throw new IllegalStateException("Invalid task state!");
 		}
 
-		completionBarrier.reset();
+		this.executor = executor;
+		schedule();
+
+		if (completion == Completion.BARRIER) {
+			completionBarrier.reset();
+		}
 
 		// pass to executor service
-		service.execute(task = new Task());
+		executor.getService(job).execute(runnable);
 	}
 
 	/**
-	 * Called from {@link CyclicBarrier} when the async task is completed.
+	 * Marks the task as pending, as part of a batch scheduled by {@link AsyncTaskExecutor#executeAll}. The
+	 * task is run by {@link AsyncTaskGroup}, independent of its {@link Completion} mode.
+	 *
+	 * @throws IllegalStateException if the task is not ready yet, after it has been scheduled previously.
 	 */
-	private void completed() {
-		job.completed();
+	void prepare(AsyncTaskExecutor executor, AsyncTaskGroup group, int index) {
+
+		if (!state.compareAndSet(State.READY, State.PENDING)) {
+			throw new IllegalStateException("Invalid task state!");
+		}
+
+		this.executor = executor;
+		this.group = group;
+		this.groupIndex = index;
+
+		schedule();
 	}
 
-	private class Task extends FutureTask<V> {
+	/**
+	 * Reverts {@link AsyncTask#prepare(AsyncTaskExecutor, AsyncTaskGroup, int)}, if scheduling the batch
+	 * failed before any task has been queued.
+	 */
+	void unprepare() {
+
+		group = null;
 
-		Task() {
-			super(job);
+		if (!state.compareAndSet(State.PENDING, State.READY)) {
+			throw new IllegalStateException("Invalid task state!");
 		}
+	}
 
-		@Override
-		protected void done() {
+	/**
+	 * Computes the priority and deadline used to order this task in {@link AsyncTaskQueue}. Both must not
+	 * change while the task is queued.
+	 */
+	private void schedule() {
 
-			try {
+		// may have been set by a late cancel() of the previous execution
+		cancellationRequested = false;
 
-				if (!state.compareAndSet(State.PENDING, State.COMPLETED)) {
-					throw new IllegalStateException("Invalid completion state!");
-				}
+		scheduledPriority = priority;
 
-				completionBarrier.await();
+		long budget = priority.latencyBudgetNanos;
+
+		if (deadlineNanos >= 0L && deadlineNanos < budget) {
+			budget = deadlineNanos;
+		}
+
+		scheduledNanos = System.nanoTime();
+		scheduledDeadline = scheduledNanos + budget;
+	}
+
+	long getScheduledDeadline() {
+		return scheduledDeadline;
+	}
 
+	/**
+	 * Calls {@link AsyncTaskJob#completed()} and resets the task, after the worker thread has finished. Called
+	 * by {@link AsyncTask#await(Consumer)}, {@link AsyncTaskExecutor#drainCompleted(long)} or
+	 * {@link AsyncTaskGroup}.
+	 *
+	 * @return false if the task has been cancelled
+	 * @throws AsyncTaskException if the job has thrown an exception
+	 */
+	boolean finish() {
+
+		group = null;
+
+		if (state.get() == State.CANCELLED) {
+			reset(State.CANCELLED);
+			return false;
+		}
+
+		completed();
+		reset(State.COMPLETED);
+
+		return true;
+	}
+
+	private void reset(State expected) {
+
+		Throwable t = failure;
+		failure = null;
+		cancellationRequested = false;
+
+		if (!state.compareAndSet(expected, State.READY)) {
+			throw new IllegalStateException("Invalid task state!");
+		}
+
+		if (t != null) {
+			throw new AsyncTaskException("Exception thrown during execution of asynchronous task!", t);
+		}
+
+		if (expected == State.COMPLETED && mainThreadContinuation != null) {
+			mainThreadContinuation.accept(job);
+		}
+	}
+
+	/**
+	 * Runs the job on a worker thread.
+	 */
+	void run() {
+
+		boolean inGroup = group != null;
+
+		if (!state.compareAndSet(State.PENDING, State.RUNNING)) {
+			if (state.get() != State.CANCELLED) {
+				throw new IllegalStateException("Invalid task state!");
+			}
+			// cancelled before it was started
+			signalDone();
+			return;
+		}
+
+		try {
+			call();
+			if (continuation != null && !cancellationRequested) {
+				executor.execute(continuation);
+			}
+		} catch (Throwable t) {
+			failure = t;
+		}
+
+		State done = cancellationRequested ? State.CANCELLED : State.COMPLETED;
+
+		if (!state.compareAndSet(State.RUNNING, done)) {
+			throw new IllegalStateException("Invalid completion state!");
+		}
+
+		signalDone();
+
+		// with BARRIER, wait for the scheduling thread to complete the task
+		if (completion == Completion.BARRIER && done == State.COMPLETED && !inGroup) {
+			try {
+				completionBarrier.await();
 			} catch (InterruptedException | BrokenBarrierException e) {
 				throw new IllegalStateException(e);
 			}
+		}
+	}
 
+	/**
+	 * Calls the job, recording its statistics if enabled.
+	 */
+	private void call() throws Exception {
+
+		AsyncTaskStatistics statistics = executor.getStatistics();
+
+		if (statistics == null) {
+			job.call();
+			return;
+		}
+
+		AsyncTaskStatistics.JobStatistics jobStatistics = statistics.getJobStatistics(job);
+
+		long start = System.nanoTime();
+		jobStatistics.wait.record(start - scheduledNanos);
+
+		Profiler profiler = statistics.getProfiler();
+
+		Sample sample = profiler != null ? profiler.sampleCPU(jobStatistics.name, true) : null;
+
+		try {
+			job.call();
+		} finally {
+			if (sample != null) {
+				sample.close();
+			}
+			jobStatistics.run.record(System.nanoTime() - start);
 		}
 	}
+
+	/**
+	 * Notifies whoever completes the task that the worker thread is done with it. The task must not be
+	 * accessed by the worker thread after this call.
+	 */
+	private void signalDone() {
+
+		if (group != null) {
+			group.finished(groupIndex);
+			return;
+		}
+
+		if (completion == Completion.QUEUE) {
+			executor.completionQueue.push(this);
+			return;
+		}
+
+		Thread thread = waiter;
+
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Called from {@link CyclicBarrier} when the async task is completed, or from {@link AsyncTask#finish()}.
+	 */
+	private void completed() {
+		job.completed();
+	}
+
+	class Runner implements AsyncTaskQueue.Entry {
+
+		@Override
+		public void run() {
+			AsyncTask.this.run();
+		}
+
+		@Override
+		public Priority getPriority() {
+			return scheduledPriority;
+		}
+
+		@Override
+		public long getDeadline() {
+			return scheduledDeadline;
+		}
+	}
+
 }
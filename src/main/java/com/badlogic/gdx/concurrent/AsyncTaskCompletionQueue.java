@@ -0,0 +1,66 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An intrusive, lock-free multi-producer/single-consumer queue of completed {@link AsyncTask} tasks.
+ * <p>
+ * Worker threads push tasks onto a stack with a single CAS. The consumer thread takes the whole stack at once,
+ * and reverses it to restore completion order. Tasks are linked through {@link AsyncTask#completionNext}, so
+ * no objects are allocated. A task can't be pushed again before it has been polled, because it isn't
+ * re-scheduled before then.
+ */
+final class AsyncTaskCompletionQueue {
+
+	private final AtomicReference<AsyncTask<?>> pushed = new AtomicReference<>();
+
+	/**
+	 * Tasks taken from {@link AsyncTaskCompletionQueue#pushed}, in completion order. Only accessed by the
+	 * consumer thread.
+	 */
+	private AsyncTask<?> polled;
+
+	/**
+	 * Called by worker threads.
+	 */
+	void push(AsyncTask<?> task) {
+		AsyncTask<?> head;
+		do {
+			head = pushed.get();
+			task.completionNext = head;
+		} while (!pushed.compareAndSet(head, task));
+	}
+
+	/**
+	 * Called by the consumer thread. Returns null if the queue is empty.
+	 */
+	AsyncTask<?> poll() {
+
+		if (polled == null) {
+
+			AsyncTask<?> head = pushed.getAndSet(null);
+
+			// reverse LIFO order
+			while (head != null) {
+				AsyncTask<?> next = head.completionNext;
+				head.completionNext = polled;
+				polled = head;
+				head = next;
+			}
+		}
+
+		AsyncTask<?> task = polled;
+
+		if (task != null) {
+			polled = task.completionNext;
+			task.completionNext = null;
+		}
+
+		return task;
+	}
+
+	boolean isEmpty() {
+		return polled == null && pushed.get() == null;
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Thrown when completing an {@link AsyncTask}, or an {@link AsyncTaskGraph}, if a job has thrown an exception
+ * on a worker thread. The original exception is passed as cause.
+ */
+public class AsyncTaskException extends GdxRuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public AsyncTaskException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -1,34 +1,296 @@
 package com.badlogic.gdx.concurrent;
 
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxSnippets;
+import com.badlogic.gdx.utils.Host;
 
 import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A wrapper to {@link ExecutorService} which executes {@link AsyncTask} tasks.
+ * <p>
+ * Job graphs, see {@link AsyncTaskGraph}, are executed by a {@link ForkJoinPool} with the same number of
+ * threads. This pool is created on first use.
+ * <p>
+ * Tasks created with {@link AsyncTask.Completion#QUEUE} are pushed to a completion queue when finished. The
+ * scheduling thread polls this queue with {@link AsyncTaskExecutor#drainCompleted(long)}.
+ * <p>
+ * Jobs which return true for {@link AsyncTaskJob#isIOBound()} are run on a separate executor, which is created
+ * on first use. On JDK 21+, this executor starts one virtual thread per job. On older runtimes, or if virtual
+ * threads are disabled, it falls back to a cached pool of platform threads.
+ * <p>
+ * The thread pool takes tasks by {@link AsyncTask.Priority} and deadline, see {@link AsyncTaskQueue}.
+ * Optionally, a number of threads can be reserved to only run {@link AsyncTask.Priority#CRITICAL} tasks, so
+ * that frame-critical work always finds a free worker.
+ * <p>
+ * Runtime statistics can be enabled with {@link AsyncTaskExecutor#enableStatistics()}.
  */
 public class AsyncTaskExecutor implements Disposable {
 
-	private final ExecutorService service;
+	private final AsyncTaskQueue queue = new AsyncTaskQueue();
+
+	final ExecutorService service;
+	private final ThreadPoolExecutor reservedService;
+
+	private final boolean useVirtualThreads;
+	private volatile ExecutorService ioService;
+
+	final AsyncTaskCompletionQueue completionQueue = new AsyncTaskCompletionQueue();
+
+	private final int threadCount;
+	private volatile ForkJoinPool workStealingPool;
+
+	private volatile AsyncTaskStatistics statistics;
 
 	public AsyncTaskExecutor(int threadCount) {
+		this(threadCount, 0, true);
+	}
+
+	public AsyncTaskExecutor(int threadCount, boolean useVirtualThreads) {
+		this(threadCount, 0, useVirtualThreads);
+	}
+
+	/**
+	 * @param reservedThreadCount number of additional threads which only run tasks of
+	 *                            {@link AsyncTask.Priority#CRITICAL} priority
+	 */
+	public AsyncTaskExecutor(int threadCount, int reservedThreadCount, boolean useVirtualThreads) {
 
 		threadCount = Math.max(threadCount, 1);
-		GdxSnippets.log.info("Starting AsyncTaskExecutor with {} threads.", threadCount);
+		reservedThreadCount = Math.max(reservedThreadCount, 0);
+
+		GdxSnippets.log.info("Starting AsyncTaskExecutor with {} threads, {} reserved.",
+				threadCount, reservedThreadCount);
+
+		this.threadCount = threadCount;
+		this.useVirtualThreads = useVirtualThreads;
+
+		Pool pool = new Pool(threadCount, queue,
+				new Factory(threadCount <= 1 ? "AsyncTask-Single-" : "AsyncTask-Pool-"));
 
-		if (threadCount <= 1) {
-			service = Executors.newSingleThreadExecutor(new Factory("AsyncTask-Single-"));
+		// else, the first tasks are handed to new threads directly, bypassing queue order
+		pool.prestartAllCoreThreads();
+		service = pool;
+
+		if (reservedThreadCount > 0) {
+			reservedService = new Pool(reservedThreadCount, queue.reservedView(), new Factory("AsyncTask-Reserved-"));
+			reservedService.prestartAllCoreThreads();
 		} else {
-			service = Executors.newFixedThreadPool(threadCount, new Factory("AsyncTask-Pool-"));
+			reservedService = null;
 		}
 	}
 
+	/**
+	 * Creates an executor sized for the host CPU, see {@link Host#cpu}.
+	 * <p>
+	 * One thread is started per physical core available to the process, minus one core left to the calling
+	 * thread, and minus the reserved threads. Simultaneous multithreading is not taken into account, since
+	 * game jobs are mostly bound by computation and memory bandwidth, and rarely benefit from sharing a core.
+	 *
+	 * @param reservedThreadCount number of additional threads which only run tasks of
+	 *                            {@link AsyncTask.Priority#CRITICAL} priority
+	 */
+	public static AsyncTaskExecutor createForHost(int reservedThreadCount, boolean useVirtualThreads) {
+
+		int cores = Host.cpu.getAvailablePhysicalCores();
+		int threadCount = Math.max(cores - 1 - Math.max(reservedThreadCount, 0), 1);
+
+		GdxSnippets.log.info("Host CPU: {}", Host.cpu);
+
+		return new AsyncTaskExecutor(threadCount, reservedThreadCount, useVirtualThreads);
+	}
+
+	public static AsyncTaskExecutor createForHost() {
+		return createForHost(0, true);
+	}
+
 	public <V extends AsyncTaskJob<V>>
 	void execute(AsyncTask<V> task) {
-		task.execute(service);
+		task.execute(this);
+	}
+
+	/**
+	 * Schedules a batch of tasks, and returns a new {@link AsyncTaskGroup} to wait for them.
+	 *
+	 * @see AsyncTaskExecutor#executeAll(Array, AsyncTaskGroup)
+	 */
+	public AsyncTaskGroup executeAll(Array<AsyncTask<?>> tasks) {
+		AsyncTaskGroup group = new AsyncTaskGroup();
+		executeAll(tasks, group);
+		return group;
+	}
+
+	/**
+	 * Schedules a batch of tasks as one group. Instead of queuing each task separately, up to one runner per
+	 * thread is queued, and runners claim tasks from the batch until all are taken.
+	 * <p>
+	 * Tasks in a group are completed through {@link AsyncTaskGroup#awaitAll()} or
+	 * {@link AsyncTaskGroup#awaitAny()}, independent of their {@link AsyncTask.Completion} mode.
+	 *
+	 * @throws IllegalStateException if the group has not been completed yet, or if any task is not ready.
+	 */
+	public void executeAll(Array<AsyncTask<?>> tasks, AsyncTaskGroup group) {
+
+		group.prepare(this, tasks);
+
+		int ioBound = 0;
+
+		for (int i = 0; i < tasks.size; i++) {
+			AsyncTask<?> task = tasks.get(i);
+			if (task.job.isIOBound()) {
+				getIOService().execute(task.runnable);
+				ioBound++;
+			}
+		}
+
+		int runners = Math.min(threadCount, tasks.size - ioBound);
+
+		for (int i = 0; i < runners; i++) {
+			service.execute(group.runner);
+		}
+	}
+
+	/**
+	 * Calls {@link AsyncTaskJob#completed()} for tasks finished with {@link AsyncTask.Completion#QUEUE}, in
+	 * completion order, until the queue is empty or the time budget is used up. At least one task is
+	 * completed if the queue is not empty. Cancelled tasks are reset without calling
+	 * {@link AsyncTaskJob#completed()}.
+	 * <p>
+	 * This function does not block, and must only be called from one thread, usually the one scheduling the
+	 * tasks.
+	 *
+	 * @return the number of tasks completed, or cancelled
+	 * @throws AsyncTaskException if one of the tasks has thrown an exception. Remaining tasks stay queued.
+	 */
+	public int drainCompleted(long nanosBudget) {
+
+		long start = System.nanoTime();
+		int count = 0;
+
+		AsyncTask<?> task;
+
+		while ((task = completionQueue.poll()) != null) {
+
+			count++;
+			task.finish();
+
+			if (System.nanoTime() - start >= nanosBudget) {
+				break;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Calls {@link AsyncTaskJob#completed()} for all tasks in the completion queue.
+	 */
+	public int drainCompleted() {
+		return drainCompleted(Long.MAX_VALUE);
+	}
+
+	public boolean hasCompleted() {
+		return !completionQueue.isEmpty();
+	}
+
+	/**
+	 * Schedules all jobs of the graph which have no predecessors. Use {@link AsyncTaskGraph#await()} to wait
+	 * for completion of the whole graph.
+	 */
+	public void execute(AsyncTaskGraph graph) {
+		graph.execute(getWorkStealingPool());
+	}
+
+	/**
+	 * Returns true if I/O-bound jobs are run on virtual threads. This creates the I/O executor, if it has not
+	 * been used yet.
+	 */
+	public boolean isUsingVirtualThreads() {
+		return !(getIOService() instanceof ThreadPoolExecutor);
+	}
+
+	/**
+	 * Starts recording runtime statistics, if not enabled already.
+	 * <p>
+	 * Job statistics are recorded for all tasks. Worker utilization is only recorded for the threads of the
+	 * main pool, and reserved threads.
+	 */
+	public synchronized AsyncTaskStatistics enableStatistics() {
+
+		if (statistics == null) {
+			statistics = new AsyncTaskStatistics();
+			queue.statistics = statistics;
+		}
+
+		return statistics;
+	}
+
+	public synchronized void disableStatistics() {
+		statistics = null;
+		queue.statistics = null;
+	}
+
+	/**
+	 * Returns the statistics recorded since {@link AsyncTaskExecutor#enableStatistics()}, or null if disabled.
+	 */
+	public AsyncTaskStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Removes a runnable from the work queue, if it has not been taken by a worker thread yet.
+	 */
+	boolean remove(Runnable runnable) {
+		return queue.remove(runnable);
+	}
+
+	ExecutorService getService(AsyncTaskJob<?> job) {
+		return job.isIOBound() ? getIOService() : service;
+	}
+
+	private ExecutorService getIOService() {
+
+		ExecutorService io = ioService;
+
+		if (io == null) {
+			synchronized (this) {
+				io = ioService;
+				if (io == null) {
+
+					io = useVirtualThreads ? newVirtualThreadExecutor("AsyncTask-Virtual-") : null;
+
+					if (io == null) {
+						GdxSnippets.log.info("Virtual threads not available, using platform threads for I/O tasks.");
+						io = Executors.newCachedThreadPool(new Factory("AsyncTask-IO-"));
+					}
+
+					ioService = io;
+				}
+			}
+		}
+
+		return io;
+	}
+
+	ForkJoinPool getWorkStealingPool() {
+
+		ForkJoinPool pool = workStealingPool;
+
+		if (pool == null) {
+			synchronized (this) {
+				pool = workStealingPool;
+				if (pool == null) {
+					pool = new ForkJoinPool(threadCount, new WorkStealingFactory("AsyncTask-Steal-"), null, false);
+					workStealingPool = pool;
+				}
+			}
+		}
+
+		return pool;
 	}
 
 	@Override
@@ -37,13 +299,86 @@ public class AsyncTaskExecutor implements Disposable {
 		service.shutdown();
 		GdxSnippets.log.info("Shutting down AsyncTaskExecutor");
 
+		if (reservedService != null) {
+			reservedService.shutdown();
+		}
+
+		ForkJoinPool pool = workStealingPool;
+
+		if (pool != null) {
+			pool.shutdown();
+		}
+
+		ExecutorService io = ioService;
+
+		if (io != null) {
+			io.shutdown();
+		}
+
 		try {
 			service.awaitTermination(2500, TimeUnit.MILLISECONDS);
+			if (reservedService != null) {
+				reservedService.awaitTermination(2500, TimeUnit.MILLISECONDS);
+			}
+			if (pool != null) {
+				pool.awaitTermination(2500, TimeUnit.MILLISECONDS);
+			}
+			if (io != null) {
+				io.awaitTermination(2500, TimeUnit.MILLISECONDS);
+			}
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Uses reflection to call {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory())},
+	 * which is available on JDK 21+. Returns null on older runtimes.
+	 */
+	private static ExecutorService newVirtualThreadExecutor(String prefix) {
+
+		try {
+
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+			ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+			Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) method.invoke(null, factory);
+
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Thread pool which reports busy time of its threads to {@link AsyncTaskStatistics}.
+	 */
+	private class Pool extends ThreadPoolExecutor {
+
+		Pool(int threadCount, BlockingQueue<Runnable> queue, ThreadFactory factory) {
+			super(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, queue, factory);
+		}
+
+		@Override
+		protected void beforeExecute(Thread thread, Runnable runnable) {
+			AsyncTaskStatistics stats = statistics;
+			if (stats != null) {
+				stats.beforeExecute();
+			}
+		}
+
+		@Override
+		protected void afterExecute(Runnable runnable, Throwable throwable) {
+			AsyncTaskStatistics stats = statistics;
+			if (stats != null) {
+				stats.afterExecute();
+			}
+		}
+	}
+
 	private static class Factory implements ThreadFactory {
 
 		private final ThreadGroup group;
@@ -63,4 +398,22 @@ public class AsyncTaskExecutor implements Disposable {
 		}
 	}
 
+	private static class WorkStealingFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+		private final String namePrefix;
+
+		WorkStealingFactory(String prefix) {
+			namePrefix = prefix;
+		}
+
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName(namePrefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
 }
@@ -0,0 +1,279 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A graph of jobs with dependencies, executed on the work-stealing pool of an {@link AsyncTaskExecutor}.
+ * <p>
+ * Each job starts as soon as all of its predecessors have finished. Ready successors are forked from the
+ * worker thread which finished their last predecessor, so the scheduling thread does not need to step in
+ * between jobs.
+ *
+ * <pre>
+ * {@code
+ * AsyncTaskGraph graph = new AsyncTaskGraph();
+ * AsyncTaskGraph.Node animate = graph.add(this::animate);
+ * AsyncTaskGraph.Node cull = graph.add(this::cull).after(animate);
+ * graph.add(this::buildVertices).after(cull);
+ *
+ * executor.execute(graph);
+ * // ... do other work ...
+ * graph.await();
+ * }
+ * </pre>
+ *
+ * The graph can be re-executed after {@link AsyncTaskGraph#await()} returned. Nodes and edges can only be
+ * modified while the graph is not executing.
+ */
+public class AsyncTaskGraph {
+
+	public class Node extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Runnable job;
+		private final int index;
+		private final Array<Node> successors = new Array<>(false, 4, Node.class);
+		private int predecessorCount;
+
+		private final AtomicInteger pending = new AtomicInteger();
+		private boolean forked;
+
+		Node(Runnable job, int index) {
+			this.job = job;
+			this.index = index;
+		}
+
+		/**
+		 * Adds a dependency: this job is not started before the predecessor has finished.
+		 */
+		public Node after(Node predecessor) {
+
+			if (predecessor.graph() != AsyncTaskGraph.this) {
+				throw new IllegalArgumentException("Nodes must belong to the same graph!");
+			}
+
+			checkNotExecuting();
+
+			if (!predecessor.successors.contains(this, true)) {
+				predecessor.successors.add(this);
+				predecessorCount++;
+				validated = false;
+			}
+
+			return this;
+		}
+
+		/**
+		 * Adds dependencies to multiple predecessors.
+		 */
+		public Node after(Node... predecessors) {
+			for (Node predecessor : predecessors) {
+				after(predecessor);
+			}
+			return this;
+		}
+
+		@Override
+		protected void compute() {
+			Node node = this;
+			while (node != null) {
+				node = node.run();
+			}
+		}
+
+		/**
+		 * Runs the job, then forks successors which became ready. The last one of them is returned to
+		 * be continued on the current thread.
+		 */
+		private Node run() {
+
+			if (failure.get() == null) {
+				try {
+					job.run();
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			}
+
+			Node next = null;
+
+			for (int i = 0; i < successors.size; i++) {
+				Node successor = successors.items[i];
+				if (successor.pending.decrementAndGet() == 0) {
+					if (next != null) {
+						next.forked = true;
+						next.fork();
+					}
+					next = successor;
+				}
+			}
+
+			finished();
+
+			return next;
+		}
+
+		private AsyncTaskGraph graph() {
+			return AsyncTaskGraph.this;
+		}
+	}
+
+	private final Array<Node> nodes = new Array<>(false, 16, Node.class);
+	private final Array<Node> roots = new Array<>(false, 16, Node.class);
+
+	private boolean validated = false;
+
+	private final AtomicInteger remaining = new AtomicInteger();
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+	private volatile Thread waiter;
+
+	/**
+	 * Adds a job to the graph. Use {@link Node#after(Node)} to declare its dependencies.
+	 */
+	public Node add(Runnable job) {
+		checkNotExecuting();
+		Node node = new Node(job, nodes.size);
+		nodes.add(node);
+		validated = false;
+		return node;
+	}
+
+	public int size() {
+		return nodes.size;
+	}
+
+	public boolean isExecuting() {
+		return remaining.get() > 0;
+	}
+
+	/**
+	 * Waits until all jobs of the graph have finished.
+	 *
+	 * @throws AsyncTaskException if any of the jobs has thrown an exception. Jobs not started yet at the time
+	 * of the failure are skipped.
+	 */
+	public void await() throws InterruptedException {
+
+		if (remaining.get() > 0) {
+
+			waiter = Thread.currentThread();
+
+			while (remaining.get() > 0) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					waiter = null;
+					throw new InterruptedException();
+				}
+			}
+
+			waiter = null;
+		}
+
+		Throwable t = failure.getAndSet(null);
+
+		if (t != null) {
+			throw new AsyncTaskException("Exception thrown during execution of job graph!", t);
+		}
+	}
+
+	/**
+	 * Schedules all jobs without predecessors on the given pool.
+	 *
+	 * @throws IllegalStateException if the graph is executing already, or if it contains a cycle.
+	 */
+	void execute(ForkJoinPool pool) {
+
+		checkNotExecuting();
+		validate();
+
+		if (nodes.size == 0) {
+			return;
+		}
+
+		failure.set(null);
+		remaining.set(nodes.size);
+
+		for (int i = 0; i < nodes.size; i++) {
+			Node node = nodes.items[i];
+			if (node.forked) {
+				// the pool may not have marked the task as done yet, even though its job has finished
+				node.quietlyJoin();
+				node.forked = false;
+			}
+			node.reinitialize();
+			node.pending.set(node.predecessorCount);
+		}
+
+		for (int i = 0; i < roots.size; i++) {
+			Node root = roots.items[i];
+			root.forked = true;
+			pool.execute(root);
+		}
+	}
+
+	private void finished() {
+		if (remaining.decrementAndGet() == 0) {
+			Thread thread = waiter;
+			if (thread != null) {
+				LockSupport.unpark(thread);
+			}
+		}
+	}
+
+	private void checkNotExecuting() {
+		if (remaining.get() > 0) {
+			throw new IllegalStateException("Job graph is executing!");
+		}
+	}
+
+	/**
+	 * Collects root nodes, and checks that the graph is acyclic (Kahn's algorithm).
+	 */
+	private void validate() {
+
+		if (validated) {
+			return;
+		}
+
+		roots.clear();
+
+		int[] inDegree = new int[nodes.size];
+		Array<Node> open = new Array<>(false, nodes.size, Node.class);
+
+		for (int i = 0; i < nodes.size; i++) {
+			Node node = nodes.items[i];
+			inDegree[i] = node.predecessorCount;
+			if (node.predecessorCount == 0) {
+				roots.add(node);
+				open.add(node);
+			}
+		}
+
+		int visited = 0;
+
+		while (open.size > 0) {
+			Node node = open.pop();
+			visited++;
+			for (int i = 0; i < node.successors.size; i++) {
+				Node successor = node.successors.items[i];
+				if (--inDegree[successor.index] == 0) {
+					open.add(successor);
+				}
+			}
+		}
+
+		if (visited != nodes.size) {
+			throw new IllegalStateException("Job graph contains a cycle!");
+		}
+
+		validated = true;
+	}
+
+}
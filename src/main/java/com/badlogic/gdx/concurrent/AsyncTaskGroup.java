@@ -0,0 +1,279 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A batch of {@link AsyncTask} tasks, scheduled with {@link AsyncTaskExecutor#executeAll(Array, AsyncTaskGroup)}.
+ * <p>
+ * Completion of the whole batch is tracked by a single counter. The scheduling thread waits for all tasks with
+ * {@link AsyncTaskGroup#awaitAll()}, or for the next one with {@link AsyncTaskGroup#awaitAny()}. In both cases,
+ * {@link AsyncTaskJob#completed()} is called by the waiting thread, in completion order.
+ * <p>
+ * A group can be reused for another batch after all of its tasks have been completed.
+ *
+ * <pre>
+ * {@code
+ * AsyncTaskGroup group = new AsyncTaskGroup();
+ *
+ * executor.executeAll(tasks, group);
+ * group.awaitAll();
+ * }
+ * </pre>
+ */
+public class AsyncTaskGroup {
+
+	private final Array<AsyncTask<?>> tasks = new Array<>();
+
+	/**
+	 * Number of tasks not finished by a worker thread yet.
+	 */
+	private final AtomicInteger remaining = new AtomicInteger();
+
+	/**
+	 * Slot index for the next task to be finished.
+	 */
+	private final AtomicInteger finishedSlot = new AtomicInteger();
+
+	/**
+	 * Task indices (+1) in order of completion. Zero for slots not written yet.
+	 */
+	private AtomicIntegerArray finishedOrder = new AtomicIntegerArray(16);
+
+	/**
+	 * Number of tasks completed by the scheduling thread.
+	 */
+	private int consumed;
+
+	private volatile Thread waiter;
+	private volatile boolean waitingForAll;
+
+	/**
+	 * Runner of the current batch. A new one is created per batch, so that runners of a previous batch, which
+	 * may still be queued, or about to exit, don't see the state of the next one.
+	 */
+	Runner runner;
+
+	public int size() {
+		return tasks.size;
+	}
+
+	/**
+	 * Returns true if all tasks of this group have been finished by worker threads.
+	 */
+	public boolean isFinished() {
+		return remaining.get() == 0;
+	}
+
+	/**
+	 * Returns true if all tasks have been completed, and the group can be reused.
+	 */
+	public boolean isCompleted() {
+		return consumed == tasks.size;
+	}
+
+	/**
+	 * Waits for all remaining tasks of the group, and completes them.
+	 *
+	 * @throws AsyncTaskException if any of the tasks has thrown an exception. All tasks are completed anyway,
+	 * and the first exception encountered is re-thrown.
+	 */
+	public void awaitAll() throws InterruptedException {
+
+		if (remaining.get() > 0) {
+
+			waitingForAll = true;
+			waiter = Thread.currentThread();
+
+			try {
+				while (remaining.get() > 0) {
+					LockSupport.park(this);
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+				}
+			} finally {
+				waiter = null;
+			}
+		}
+
+		RuntimeException exception = null;
+
+		while (consumed < tasks.size) {
+			try {
+				completeNext();
+			} catch (RuntimeException e) {
+				if (exception == null) {
+					exception = e;
+				}
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * Waits for the next task of the group to finish, and completes it.
+	 *
+	 * @return the task completed, or null if all tasks of the group have been completed already. Use
+	 * {@link AsyncTask#isCancelled()} to check if the task has been cancelled instead.
+	 * @throws AsyncTaskException if the task has thrown an exception
+	 */
+	public AsyncTask<?> awaitAny() throws InterruptedException {
+
+		if (consumed == tasks.size) {
+			return null;
+		}
+
+		if (finishedOrder.get(consumed) == 0) {
+
+			waitingForAll = false;
+			waiter = Thread.currentThread();
+
+			try {
+				while (finishedOrder.get(consumed) == 0) {
+					LockSupport.park(this);
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+				}
+			} finally {
+				waiter = null;
+			}
+		}
+
+		return completeNext();
+	}
+
+	private AsyncTask<?> completeNext() {
+		AsyncTask<?> task = tasks.get(finishedOrder.get(consumed) - 1);
+		consumed++;
+		task.finish();
+		return task;
+	}
+
+	void prepare(AsyncTaskExecutor executor, Array<AsyncTask<?>> batch) {
+
+		if (!isCompleted()) {
+			throw new IllegalStateException("Task group has not been completed yet!");
+		}
+
+		for (int i = 0; i < batch.size; i++) {
+			if (!batch.get(i).isReady()) {
+				throw new IllegalStateException("Invalid task state!");
+			}
+		}
+
+		AsyncTask<?>[] items = new AsyncTask<?>[batch.size];
+
+		AsyncTask.Priority priority = AsyncTask.Priority.BACKGROUND;
+		long deadline = Long.MAX_VALUE;
+
+		for (int i = 0; i < items.length; i++) {
+
+			AsyncTask<?> task = batch.get(i);
+
+			try {
+				task.prepare(executor, this, i);
+			} catch (IllegalStateException e) {
+				// e.g. the same task twice in one batch, roll back the tasks prepared so far
+				for (int j = 0; j < i; j++) {
+					items[j].unprepare();
+				}
+				throw e;
+			}
+
+			items[i] = task;
+
+			// runners are queued with the highest priority, and earliest deadline, of all tasks
+			if (task.getPriority().compareTo(priority) < 0) {
+				priority = task.getPriority();
+			}
+
+			if (i == 0 || task.getScheduledDeadline() - deadline < 0L) {
+				deadline = task.getScheduledDeadline();
+			}
+		}
+
+		tasks.clear();
+		tasks.addAll(batch);
+
+		if (finishedOrder.length() < tasks.size) {
+			finishedOrder = new AtomicIntegerArray(Math.max(tasks.size, finishedOrder.length() * 2));
+		} else {
+			for (int i = 0; i < tasks.size; i++) {
+				finishedOrder.set(i, 0);
+			}
+		}
+
+		runner = new Runner(items, priority, deadline);
+
+		consumed = 0;
+		finishedSlot.set(0);
+		remaining.set(tasks.size);
+	}
+
+	/**
+	 * Called by worker threads.
+	 */
+	void finished(int index) {
+
+		finishedOrder.set(finishedSlot.getAndIncrement(), index + 1);
+
+		int count = remaining.decrementAndGet();
+
+		Thread thread = waiter;
+
+		if (thread != null && (count == 0 || !waitingForAll)) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Runs on worker threads, claiming and running tasks of one batch until all of them are taken. I/O-bound
+	 * tasks are skipped, they are scheduled separately.
+	 * <p>
+	 * The same runner is queued once per thread. Its queue order is fixed when the batch is scheduled.
+	 */
+	static final class Runner implements AsyncTaskQueue.Entry {
+
+		private final AsyncTask<?>[] tasks;
+		private final AtomicInteger claimed = new AtomicInteger();
+
+		private final AsyncTask.Priority priority;
+		private final long deadline;
+
+		Runner(AsyncTask<?>[] tasks, AsyncTask.Priority priority, long deadline) {
+			this.tasks = tasks;
+			this.priority = priority;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public void run() {
+			int index;
+			while ((index = claimed.getAndIncrement()) < tasks.length) {
+				AsyncTask<?> task = tasks[index];
+				if (!task.job.isIOBound()) {
+					task.run();
+				}
+			}
+		}
+
+		@Override
+		public AsyncTask.Priority getPriority() {
+			return priority;
+		}
+
+		@Override
+		public long getDeadline() {
+			return deadline;
+		}
+	}
+
+}
@@ -6,4 +6,12 @@ public interface AsyncTaskJob<V> extends Callable<V> {
 
 	void completed();
 
+	/**
+	 * Returns true if this job spends most of its time blocked on I/O. Such jobs don't run on the fixed thread
+	 * pool of {@link AsyncTaskExecutor}, but on a separate executor which uses virtual threads, if available.
+	 */
+	default boolean isIOBound() {
+		return false;
+	}
+
 }
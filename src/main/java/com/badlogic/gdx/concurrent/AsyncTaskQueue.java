@@ -0,0 +1,364 @@
+package com.badlogic.gdx.concurrent;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The work queue of {@link AsyncTaskExecutor}, ordered by priority and deadline.
+ * <p>
+ * There is one heap per {@link AsyncTask.Priority} class, each ordered by deadline. The deadline of an entry is
+ * either the one set for its task, or the time it was queued plus the latency budget of its priority class,
+ * whichever is earlier. Worker threads always take the entry with the earliest deadline of all heads.
+ * <p>
+ * This means that entries of a higher priority class are preferred over those queued at about the same time,
+ * but entries waiting in a lower class are aged: once they have waited for longer than their budget, they
+ * are taken before newer entries of higher classes, and can't starve.
+ * <p>
+ * Threads reserved for {@link AsyncTask.Priority#CRITICAL} work take entries through the view returned by
+ * {@link AsyncTaskQueue#reservedView()}, which only ever returns entries of that class.
+ */
+final class AsyncTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+	/**
+	 * Implemented by all runnables queued by {@link AsyncTaskExecutor}.
+	 */
+	interface Entry extends Runnable {
+
+		AsyncTask.Priority getPriority();
+
+		/**
+		 * Returns the deadline, in {@link System#nanoTime()}, for this entry to be started.
+		 */
+		long getDeadline();
+	}
+
+	private static final Comparator<Entry> byDeadline = (a, b) -> Long.compare(a.getDeadline() - b.getDeadline(), 0L);
+
+	private static final AsyncTask.Priority[] priorities = AsyncTask.Priority.values();
+
+	private final PriorityQueue<Entry>[] heaps;
+	private int size;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition reservedNotEmpty = lock.newCondition();
+
+	private final ReservedView reservedView;
+
+	volatile AsyncTaskStatistics statistics;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	AsyncTaskQueue() {
+		heaps = new PriorityQueue[priorities.length];
+		for (int i = 0; i < heaps.length; i++) {
+			heaps[i] = new PriorityQueue<>(64, byDeadline);
+		}
+		reservedView = new ReservedView();
+	}
+
+	BlockingQueue<Runnable> reservedView() {
+		return reservedView;
+	}
+
+	@Override
+	public boolean offer(@Nonnull Runnable runnable) {
+
+		if (!(runnable instanceof Entry)) {
+			throw new IllegalArgumentException("Not an AsyncTaskQueue.Entry!");
+		}
+
+		Entry entry = (Entry) runnable;
+
+		lock.lock();
+		try {
+			AsyncTask.Priority priority = entry.getPriority();
+			heaps[priority.ordinal()].add(entry);
+			size++;
+			AsyncTaskStatistics stats = statistics;
+			if (stats != null) {
+				stats.queued(size);
+			}
+			notEmpty.signal();
+			if (priority == AsyncTask.Priority.CRITICAL) {
+				reservedNotEmpty.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		return true;
+	}
+
+	@Override
+	public void put(@Nonnull Runnable runnable) {
+		offer(runnable);
+	}
+
+	@Override
+	public boolean offer(Runnable runnable, long timeout, @Nonnull TimeUnit unit) {
+		return offer(runnable);
+	}
+
+	@Override
+	public Runnable poll() {
+		lock.lock();
+		try {
+			return dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public @Nonnull Runnable take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			Runnable runnable;
+			while ((runnable = dequeue()) == null) {
+				notEmpty.await();
+			}
+			return runnable;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Runnable poll(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			Runnable runnable;
+			while ((runnable = dequeue()) == null) {
+				if (nanos <= 0L) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return runnable;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Runnable peek() {
+		lock.lock();
+		try {
+			PriorityQueue<Entry> heap = earliest();
+			return heap != null ? heap.peek() : null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object object) {
+		lock.lock();
+		try {
+			if (object instanceof Entry) {
+				Entry entry = (Entry) object;
+				if (heaps[entry.getPriority().ordinal()].remove(entry)) {
+					size--;
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return size;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public int drainTo(@Nonnull Collection<? super Runnable> collection) {
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(@Nonnull Collection<? super Runnable> collection, int maxElements) {
+		lock.lock();
+		try {
+			int count = 0;
+			Runnable runnable;
+			while (count < maxElements && (runnable = dequeue()) != null) {
+				collection.add(runnable);
+				count++;
+			}
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the queue content, in no particular order.
+	 */
+	@Override
+	public @Nonnull Iterator<Runnable> iterator() {
+		lock.lock();
+		try {
+			List<Runnable> snapshot = new ArrayList<>(size);
+			for (PriorityQueue<Entry> heap : heaps) {
+				snapshot.addAll(heap);
+			}
+			return snapshot.iterator();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private PriorityQueue<Entry> earliest() {
+
+		PriorityQueue<Entry> earliest = null;
+		long deadline = 0L;
+
+		for (PriorityQueue<Entry> heap : heaps) {
+			Entry head = heap.peek();
+			if (head != null && (earliest == null || head.getDeadline() - deadline < 0L)) {
+				earliest = heap;
+				deadline = head.getDeadline();
+			}
+		}
+
+		return earliest;
+	}
+
+	private Runnable dequeue() {
+		PriorityQueue<Entry> heap = earliest();
+		return heap != null ? dequeue(heap) : null;
+	}
+
+	private Runnable dequeue(PriorityQueue<Entry> heap) {
+		Entry entry = heap.poll();
+		if (entry != null) {
+			size--;
+		}
+		return entry;
+	}
+
+	/**
+	 * A view to the queue which only returns {@link AsyncTask.Priority#CRITICAL} entries. Entries can't be
+	 * added through this view.
+	 */
+	private class ReservedView extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+		private final PriorityQueue<Entry> heap = heaps[AsyncTask.Priority.CRITICAL.ordinal()];
+
+		@Override
+		public boolean offer(@Nonnull Runnable runnable) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void put(@Nonnull Runnable runnable) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean offer(Runnable runnable, long timeout, @Nonnull TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Runnable poll() {
+			lock.lock();
+			try {
+				return dequeue(heap);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public @Nonnull Runnable take() throws InterruptedException {
+			lock.lockInterruptibly();
+			try {
+				Runnable runnable;
+				while ((runnable = dequeue(heap)) == null) {
+					reservedNotEmpty.await();
+				}
+				return runnable;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Runnable poll(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+			long nanos = unit.toNanos(timeout);
+			lock.lockInterruptibly();
+			try {
+				Runnable runnable;
+				while ((runnable = dequeue(heap)) == null) {
+					if (nanos <= 0L) {
+						return null;
+					}
+					nanos = reservedNotEmpty.awaitNanos(nanos);
+				}
+				return runnable;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Runnable peek() {
+			lock.lock();
+			try {
+				return heap.peek();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public int size() {
+			lock.lock();
+			try {
+				return heap.size();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public int remainingCapacity() {
+			return 0;
+		}
+
+		@Override
+		public int drainTo(@Nonnull Collection<? super Runnable> collection) {
+			return 0;
+		}
+
+		@Override
+		public int drainTo(@Nonnull Collection<? super Runnable> collection, int maxElements) {
+			return 0;
+		}
+
+		@Override
+		public @Nonnull Iterator<Runnable> iterator() {
+			return Collections.emptyIterator();
+		}
+	}
+
+}
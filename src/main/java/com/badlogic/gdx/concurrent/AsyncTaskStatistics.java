@@ -0,0 +1,307 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.profiler.Profiler;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Histogram;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime statistics of an {@link AsyncTaskExecutor}, enabled with {@link AsyncTaskExecutor#enableStatistics()}.
+ * <p>
+ * Records, per job class, the time tasks waited in the queue and the time their jobs ran, the busy and idle
+ * time of each pool thread, and the depth of the work queue each time a task was queued. All values are
+ * recorded with atomic counters and log2 histograms, no objects are allocated per sample.
+ * <p>
+ * Use {@link AsyncTaskStatistics#snapshot()} to get a consistent copy for display or logging.
+ * Optionally, jobs are sampled with a {@link Profiler}, see {@link AsyncTaskStatistics#setProfiler(Profiler)}.
+ */
+public class AsyncTaskStatistics {
+
+	/**
+	 * Statistics of all tasks running jobs of the same class.
+	 */
+	public static class JobStatistics {
+
+		final String name;
+		final Histogram wait = new Histogram();
+		final Histogram run = new Histogram();
+
+		JobStatistics(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Nanoseconds from scheduling a task until its job was started.
+		 */
+		public Histogram getWaitTime() {
+			return wait;
+		}
+
+		/**
+		 * Nanoseconds spent running the job.
+		 */
+		public Histogram getRunTime() {
+			return run;
+		}
+	}
+
+	/**
+	 * Utilization of a single pool thread. Only written by the thread itself.
+	 */
+	public static class WorkerStatistics {
+
+		final String name;
+		final long startNanos;
+		final int generation;
+
+		private volatile long busyNanos;
+		private volatile long taskCount;
+		private volatile long beginNanos;
+		private long endNanos;
+
+		WorkerStatistics(String name, long startNanos, int generation) {
+			this.name = name;
+			this.startNanos = startNanos;
+			this.generation = generation;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getBusyNanos() {
+			return busyNanos;
+		}
+
+		/**
+		 * Nanoseconds this thread spent waiting for work, since its first task.
+		 */
+		public long getIdleNanos() {
+			return Math.max(endNanos - startNanos - busyNanos, 0L);
+		}
+
+		public long getTaskCount() {
+			return taskCount;
+		}
+
+		/**
+		 * Returns the fraction of time this thread was busy, in the range 0..1.
+		 */
+		public float getUtilization() {
+			long total = endNanos - startNanos;
+			return total > 0L ? (float) ((double) busyNanos / total) : 0.0f;
+		}
+
+		void copyTo(WorkerStatistics to, long now) {
+			long begin = beginNanos;
+			// include the task currently running
+			to.busyNanos = busyNanos + (begin != 0L ? now - begin : 0L);
+			to.taskCount = taskCount;
+			to.endNanos = now;
+		}
+	}
+
+	/**
+	 * A copy of all statistics at the time of {@link AsyncTaskStatistics#snapshot()}.
+	 */
+	public static class Snapshot {
+
+		private final long nanos;
+		private final Array<JobStatistics> jobs;
+		private final Array<WorkerStatistics> workers;
+		private final Histogram queueDepth;
+		private final int queueDepthPeak;
+
+		Snapshot(long nanos, Array<JobStatistics> jobs, Array<WorkerStatistics> workers,
+				 Histogram queueDepth, int queueDepthPeak) {
+			this.nanos = nanos;
+			this.jobs = jobs;
+			this.workers = workers;
+			this.queueDepth = queueDepth;
+			this.queueDepthPeak = queueDepthPeak;
+		}
+
+		/**
+		 * Nanoseconds covered by this snapshot, since statistics were enabled or last reset.
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		public Array<JobStatistics> getJobs() {
+			return jobs;
+		}
+
+		public Array<WorkerStatistics> getWorkers() {
+			return workers;
+		}
+
+		/**
+		 * Number of queued tasks, sampled each time a task was queued.
+		 */
+		public Histogram getQueueDepth() {
+			return queueDepth;
+		}
+
+		public int getQueueDepthPeak() {
+			return queueDepthPeak;
+		}
+
+		/**
+		 * Returns the average utilization of all pool threads, in the range 0..1.
+		 */
+		public float getUtilization() {
+			if (workers.size == 0) {
+				return 0.0f;
+			}
+			float sum = 0.0f;
+			for (int i = 0; i < workers.size; i++) {
+				sum += workers.get(i).getUtilization();
+			}
+			return sum / workers.size;
+		}
+	}
+
+	private final ConcurrentHashMap<Class<?>, JobStatistics> jobs = new ConcurrentHashMap<>();
+
+	private final CopyOnWriteArrayList<WorkerStatistics> workers = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<WorkerStatistics> worker = new ThreadLocal<>();
+
+	private final Histogram queueDepth = new Histogram();
+	private final AtomicLong queueDepthPeak = new AtomicLong();
+
+	private volatile long startNanos = System.nanoTime();
+	private volatile int generation;
+
+	private volatile Profiler profiler;
+
+	AsyncTaskStatistics() {
+
+	}
+
+	/**
+	 * Sets a profiler to wrap each job in a CPU sample, named by the job's class.
+	 */
+	public void setProfiler(Profiler profiler) {
+		this.profiler = profiler;
+	}
+
+	Profiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Returns a copy of the current statistics.
+	 */
+	public Snapshot snapshot() {
+
+		long now = System.nanoTime();
+
+		Array<JobStatistics> jobCopies = new Array<>(jobs.size());
+
+		jobs.values().forEach(job -> {
+			JobStatistics copy = new JobStatistics(job.name);
+			job.wait.copyTo(copy.wait);
+			job.run.copyTo(copy.run);
+			jobCopies.add(copy);
+		});
+
+		jobCopies.sort((a, b) -> a.name.compareTo(b.name));
+
+		Array<WorkerStatistics> workerCopies = new Array<>(workers.size());
+
+		for (WorkerStatistics worker : workers) {
+			WorkerStatistics copy = new WorkerStatistics(worker.name, worker.startNanos, worker.generation);
+			worker.copyTo(copy, now);
+			workerCopies.add(copy);
+		}
+
+		Histogram depth = new Histogram();
+		queueDepth.copyTo(depth);
+
+		return new Snapshot(now - startNanos, jobCopies, workerCopies, depth, (int) queueDepthPeak.get());
+	}
+
+	/**
+	 * Resets all statistics. Samples recorded concurrently may be lost.
+	 */
+	public void reset() {
+
+		long now = System.nanoTime();
+
+		jobs.values().forEach(job -> {
+			job.wait.reset();
+			job.run.reset();
+		});
+
+		// threads register again with their next task
+		generation++;
+		workers.clear();
+
+		queueDepth.reset();
+		queueDepthPeak.set(0L);
+
+		startNanos = now;
+	}
+
+	JobStatistics getJobStatistics(AsyncTaskJob<?> job) {
+
+		Class<?> type = job.getClass();
+		JobStatistics statistics = jobs.get(type);
+
+		if (statistics == null) {
+			statistics = jobs.computeIfAbsent(type, t -> new JobStatistics(t.getSimpleName()));
+		}
+
+		return statistics;
+	}
+
+	void queued(int depth) {
+
+		queueDepth.record(depth);
+
+		long peak;
+		while (depth > (peak = queueDepthPeak.get()) && !queueDepthPeak.compareAndSet(peak, depth)) {
+			// retry
+		}
+	}
+
+	/**
+	 * Called by pool threads before running a task.
+	 */
+	void beforeExecute() {
+
+		long now = System.nanoTime();
+		WorkerStatistics statistics = worker.get();
+
+		if (statistics == null || statistics.generation != generation) {
+			statistics = new WorkerStatistics(Thread.currentThread().getName(), now, generation);
+			worker.set(statistics);
+			workers.add(statistics);
+		}
+
+		statistics.beginNanos = now;
+	}
+
+	/**
+	 * Called by pool threads after running a task.
+	 */
+	void afterExecute() {
+
+		WorkerStatistics statistics = worker.get();
+
+		if (statistics != null && statistics.beginNanos != 0L) {
+			statistics.busyNanos += System.nanoTime() - statistics.beginNanos;
+			statistics.taskCount++;
+			statistics.beginNanos = 0L;
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a per-frame job pipelined with the calling thread: while the results of frame N are consumed, e.g.
+ * rendered, the job for frame N+1 runs on the {@link AsyncTaskExecutor}.
+ * <p>
+ * The pipeline owns one job instance per slot, so each in-flight frame has its own input and output
+ * buffers. {@link FramePipeline#advance(BiConsumer)} is called once per frame. It completes the oldest
+ * frame, hands its job to the caller together with the job to be scheduled next, so that data can be
+ * passed from one frame to the next, and schedules that job.
+ *
+ * <pre>
+ * {@code
+ * FramePipeline<SimulationJob> pipeline = new FramePipeline<>(executor, 2, SimulationJob::new);
+ *
+ * // once per frame
+ * SimulationJob frame = pipeline.advance((next, completed) -> next.prepare(completed, input));
+ * if (frame != null) {
+ *     render(frame);
+ * }
+ * }
+ * </pre>
+ *
+ * With a depth of 2, one job runs while the result of the previous one is consumed. Each frame's job is
+ * only started after the previous frame's job has completed, so it can depend on its output.
+ * <p>
+ * With a depth above 2, jobs of consecutive frames run concurrently, which means they must not depend on
+ * each other. The completed job passed to the handoff function is then from {@code depth - 1} frames ago.
+ * <p>
+ * The first {@code depth - 1} frames return null, until the pipeline is filled.
+ */
+public class FramePipeline<V extends AsyncTaskJob<V>> {
+
+	private final AsyncTaskExecutor executor;
+	private final AsyncTask<V>[] slots;
+
+	/**
+	 * Index of the oldest slot in flight.
+	 */
+	private int oldest;
+	private int inFlight;
+
+	@SuppressWarnings("unchecked")
+	public FramePipeline(AsyncTaskExecutor executor, int depth, Supplier<V> jobFactory) {
+
+		if (depth < 2) {
+			throw new IllegalArgumentException("Pipeline depth must be at least 2!");
+		}
+
+		this.executor = executor;
+		this.slots = (AsyncTask<V>[]) new AsyncTask<?>[depth];
+
+		for (int i = 0; i < depth; i++) {
+			slots[i] = new AsyncTask<>(jobFactory.get(), AsyncTask.Completion.SIGNAL);
+		}
+	}
+
+	public int getDepth() {
+		return slots.length;
+	}
+
+	/**
+	 * Returns the number of jobs scheduled, but not completed yet.
+	 */
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * Sets the priority of all jobs scheduled from now on.
+	 */
+	public void setPriority(AsyncTask.Priority priority) {
+		for (AsyncTask<V> slot : slots) {
+			slot.setPriority(priority);
+		}
+	}
+
+	/**
+	 * Advances the pipeline by one frame.
+	 * <ul>
+	 * <li>Releases the job returned by the previous call.</li>
+	 * <li>If the pipeline is filled, waits for the oldest job in flight, and completes it.</li>
+	 * <li>Calls the handoff function with the next free job, and the job just completed, which is null while
+	 * the pipeline is being filled. Then schedules the next job.</li>
+	 * </ul>
+	 *
+	 * @return the job just completed, to be consumed until the next call. Null while the pipeline is being
+	 * filled.
+	 * @throws AsyncTaskException if the completed job has thrown an exception. The pipeline stays in a
+	 * consistent state, and the next job is not scheduled.
+	 */
+	public V advance(BiConsumer<V, V> handoff) throws InterruptedException {
+
+		V completed = null;
+
+		if (inFlight == slots.length - 1) {
+			completed = slots[completeOldest()].job;
+		}
+
+		AsyncTask<V> next = slots[(oldest + inFlight) % slots.length];
+
+		handoff.accept(next.job, completed);
+
+		executor.execute(next);
+		inFlight++;
+
+		return completed;
+	}
+
+	/**
+	 * Waits for all jobs in flight, and completes them. The pipeline then needs to be filled again.
+	 */
+	public void flush() throws InterruptedException {
+
+		while (inFlight > 0) {
+			completeOldest();
+		}
+	}
+
+	/**
+	 * Completes the oldest job in flight. If waiting is interrupted, the job is still pending, and stays in
+	 * flight.
+	 */
+	private int completeOldest() throws InterruptedException {
+
+		int index = oldest;
+
+		try {
+			slots[index].await(null);
+		} catch (AsyncTaskException | CancellationException e) {
+			// the task has been reset anyway
+			release();
+			throw e;
+		}
+
+		release();
+
+		return index;
+	}
+
+	private void release() {
+		oldest = (oldest + 1) % slots.length;
+		inFlight--;
+	}
+
+}
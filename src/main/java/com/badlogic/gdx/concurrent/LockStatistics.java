@@ -0,0 +1,260 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.profiler.Profiler;
+import com.badlogic.gdx.profiler.Sample;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Contention statistics of named {@link ReentrantLock} and {@link ReentrantReadWriteLock} wrappers.
+ * <p>
+ * Locks constructed with a name share one entry per name. Statistics are only recorded while enabled with
+ * {@link LockStatistics#setEnabled(boolean)}. If disabled, or for locks without a name, the only overhead is
+ * a null check and a volatile read.
+ * <p>
+ * For each lock, the number of acquisitions, the number of contended or failed acquisitions, the time spent
+ * waiting to acquire the lock, and the time the lock was held are recorded. Use
+ * {@link LockStatistics#report(int)} to list the locks with the most wait time first.
+ * <p>
+ * Optionally, contended waits are recorded as CPU samples of a {@link Profiler}.
+ */
+public class LockStatistics {
+
+	private static final ConcurrentHashMap<String, LockStatistics> locks = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = false;
+	private static volatile Profiler profiler;
+
+	private final String name;
+	private final String waitSampleName;
+
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder contentions = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAdder holdNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong maxHoldNanos = new AtomicLong();
+
+	private LockStatistics(String name) {
+		this.name = name;
+		this.waitSampleName = name + " (lock wait)";
+	}
+
+	public static void setEnabled(boolean enabled) {
+		LockStatistics.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets a profiler to record contended lock waits as CPU samples.
+	 */
+	public static void setProfiler(Profiler profiler) {
+		LockStatistics.profiler = profiler;
+	}
+
+	/**
+	 * Returns the statistics of all named locks, sorted by total wait time, highest first.
+	 */
+	public static Array<LockStatistics> getHotLocks() {
+		Array<LockStatistics> result = new Array<>(false, locks.size(), LockStatistics.class);
+		locks.values().forEach(result::add);
+		result.sort((a, b) -> Long.compare(b.getWaitNanos(), a.getWaitNanos()));
+		return result;
+	}
+
+	/**
+	 * Returns a table of the locks with the highest total wait time.
+	 */
+	public static String report(int maxLocks) {
+
+		Array<LockStatistics> hotLocks = getHotLocks();
+		StringBuilder builder = new StringBuilder(128 + 96 * Math.min(maxLocks, hotLocks.size));
+
+		builder.append(String.format("%-40s %12s %10s %12s %10s %12s %10s%n", "lock", "acquired", "contended",
+				"wait ms", "max wait", "hold ms", "max hold"));
+
+		for (int i = 0; i < hotLocks.size && i < maxLocks; i++) {
+			LockStatistics lock = hotLocks.get(i);
+			builder.append(String.format("%-40s %12d %10d %12.3f %10.3f %12.3f %10.3f%n", lock.name,
+					lock.getAcquisitions(), lock.getContentions(),
+					millis(lock.getWaitNanos()), millis(lock.getMaxWaitNanos()),
+					millis(lock.getHoldNanos()), millis(lock.getMaxHoldNanos())));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Resets the statistics of all locks.
+	 */
+	public static void reset() {
+		locks.values().forEach(lock -> {
+			lock.acquisitions.reset();
+			lock.contentions.reset();
+			lock.waitNanos.reset();
+			lock.holdNanos.reset();
+			lock.maxWaitNanos.set(0L);
+			lock.maxHoldNanos.set(0L);
+		});
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getAcquisitions() {
+		return acquisitions.sum();
+	}
+
+	/**
+	 * Number of acquisitions which had to wait for another thread, plus failed attempts.
+	 */
+	public long getContentions() {
+		return contentions.sum();
+	}
+
+	public long getWaitNanos() {
+		return waitNanos.sum();
+	}
+
+	public long getMaxWaitNanos() {
+		return maxWaitNanos.get();
+	}
+
+	public long getHoldNanos() {
+		return holdNanos.sum();
+	}
+
+	public long getMaxHoldNanos() {
+		return maxHoldNanos.get();
+	}
+
+	static LockStatistics get(String name) {
+		return name != null ? locks.computeIfAbsent(name, LockStatistics::new) : null;
+	}
+
+	/**
+	 * Acquires the lock, recording statistics if enabled.
+	 *
+	 * @return the time the lock was acquired, or 0 if statistics are not recorded
+	 */
+	static long lock(LockStatistics statistics, Lock lock) {
+
+		if (statistics == null || !enabled) {
+			lock.lock();
+			return 0L;
+		}
+
+		if (lock.tryLock()) {
+			statistics.acquisitions.increment();
+			return System.nanoTime();
+		}
+
+		long start = System.nanoTime();
+		Profiler p = profiler;
+
+		Sample sample = p != null ? p.sampleCPU(statistics.waitSampleName, true) : null;
+
+		try {
+			lock.lock();
+		} finally {
+			if (sample != null) {
+				sample.close();
+			}
+		}
+
+		long now = System.nanoTime();
+		statistics.waited(now - start);
+
+		return now;
+	}
+
+	/**
+	 * Returns the start time of a timed lock attempt, or 0 if statistics are not recorded.
+	 */
+	static long begin(LockStatistics statistics) {
+		return statistics == null || !enabled ? 0L : System.nanoTime();
+	}
+
+	/**
+	 * Called after a successful, timed or non-blocking lock attempt. The wait time of timed attempts is
+	 * recorded, but they are not counted as contended.
+	 *
+	 * @return the time the lock was acquired, or 0 if statistics are not recorded
+	 */
+	static long acquired(LockStatistics statistics, long start) {
+
+		if (statistics == null || !enabled) {
+			return 0L;
+		}
+
+		long now = System.nanoTime();
+		statistics.acquisitions.increment();
+
+		if (start != 0L) {
+			statistics.waitNanos.add(now - start);
+			max(statistics.maxWaitNanos, now - start);
+		}
+
+		return now;
+	}
+
+	/**
+	 * Called after a failed, timed or non-blocking lock attempt, which is counted as contended.
+	 */
+	static void failed(LockStatistics statistics, long start) {
+
+		if (statistics == null || !enabled) {
+			return;
+		}
+
+		statistics.contentions.increment();
+
+		if (start != 0L) {
+			long now = System.nanoTime();
+			statistics.waitNanos.add(now - start);
+			max(statistics.maxWaitNanos, now - start);
+		}
+	}
+
+	/**
+	 * Releases the lock, and records the hold time if it has been acquired with statistics enabled.
+	 */
+	static void unlock(LockStatistics statistics, Lock lock, long acquired) {
+
+		lock.unlock();
+
+		if (acquired != 0L) {
+			long hold = System.nanoTime() - acquired;
+			statistics.holdNanos.add(hold);
+			max(statistics.maxHoldNanos, hold);
+		}
+	}
+
+	private void waited(long nanos) {
+		acquisitions.increment();
+		contentions.increment();
+		waitNanos.add(nanos);
+		max(maxWaitNanos, nanos);
+	}
+
+	private static void max(AtomicLong max, long value) {
+		long m;
+		while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+			// retry
+		}
+	}
+
+	private static double millis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1L);
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free multi-producer/single-consumer ring buffer.
+ * <p>
+ * Any number of threads may add messages. Producers claim slots by advancing the tail index with a CAS, then
+ * write the message into the claimed slot. The consumer waits for a claimed slot to be written, so a
+ * producer which is descheduled between both steps delays the consumer, but never loses a message.
+ * <p>
+ * One thread at a time may remove messages.
+ */
+public class MpscRingBuffer<T> extends RingBuffer<T> {
+
+	private final AtomicReferenceArray<T> buffer;
+
+	public MpscRingBuffer(int capacity) {
+		this(capacity, WaitStrategy.YIELDING);
+	}
+
+	public MpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+		super(capacity, waitStrategy, false);
+		buffer = new AtomicReferenceArray<>(this.capacity);
+	}
+
+	@Override
+	public boolean offer(T item) {
+
+		checkNotNull(item);
+
+		long tail;
+
+		do {
+
+			tail = indices.get(TAIL);
+
+			if (tail - indices.get(HEAD_CACHE) >= capacity) {
+				long head = indices.get(HEAD);
+				indices.lazySet(HEAD_CACHE, head);
+				if (tail - head >= capacity) {
+					return false;
+				}
+			}
+
+		} while (!indices.compareAndSet(TAIL, tail, tail + 1));
+
+		store((int) tail & mask, item);
+		signalConsumer();
+
+		return true;
+	}
+
+	@Override
+	public int offer(T[] items, int offset, int count) {
+
+		for (int i = 0; i < count; i++) {
+			checkNotNull(items[offset + i]);
+		}
+
+		long tail;
+		int n;
+
+		do {
+
+			tail = indices.get(TAIL);
+			long head = indices.get(HEAD_CACHE);
+
+			if (tail - head + count > capacity) {
+				head = indices.get(HEAD);
+				indices.lazySet(HEAD_CACHE, head);
+			}
+
+			n = (int) Math.min(count, capacity - (tail - head));
+
+			if (n <= 0) {
+				return 0;
+			}
+
+		} while (!indices.compareAndSet(TAIL, tail, tail + n));
+
+		for (int i = 0; i < n; i++) {
+			store((int) (tail + i) & mask, items[offset + i]);
+		}
+
+		signalConsumer();
+
+		return n;
+	}
+
+	@Override
+	public T poll() {
+
+		long head = indices.get(HEAD);
+		int index = (int) head & mask;
+
+		T item = buffer.get(index);
+
+		if (item == null) {
+
+			if (head == indices.get(TAIL)) {
+				return null;
+			}
+
+			// slot claimed, but not written yet
+			item = spinForItem(index);
+		}
+
+		buffer.lazySet(index, null);
+		publishHead(head + 1);
+
+		return item;
+	}
+
+	@Override
+	public int drain(Consumer<T> consumer, int limit) {
+
+		long head = indices.get(HEAD);
+		long tail = indices.get(TAIL);
+
+		int n = (int) Math.min(tail - head, limit);
+
+		if (n <= 0) {
+			return 0;
+		}
+
+		int consumed = 0;
+
+		try {
+
+			while (consumed < n) {
+
+				int index = (int) (head + consumed) & mask;
+				T item = buffer.get(index);
+
+				if (item == null) {
+					item = spinForItem(index);
+				}
+
+				buffer.lazySet(index, null);
+				consumed++;
+
+				consumer.accept(item);
+			}
+
+		} finally {
+			// also if the consumer has thrown, so that no emptied slot stays unpublished
+			publishHead(head + consumed);
+		}
+
+		return n;
+	}
+
+	private T spinForItem(int index) {
+		T item;
+		while ((item = buffer.get(index)) == null) {
+			Thread.yield();
+		}
+		return item;
+	}
+
+	private void store(int index, T item) {
+		if (waitStrategy == WaitStrategy.BLOCKING) {
+			buffer.set(index, item);
+		} else {
+			buffer.lazySet(index, item);
+		}
+	}
+
+}
@@ -0,0 +1,475 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.function.FloatBinaryOperator;
+import com.badlogic.gdx.function.FloatConsumer;
+import com.badlogic.gdx.function.FloatPredicate;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.*;
+
+/**
+ * Parallel versions of some {@link com.badlogic.gdx.utils.ArrayUtils} functions, for large arrays.
+ * <p>
+ * The index range is split recursively until a range is no larger than the grain size, and ranges are run
+ * on the work-stealing pool of an {@link AsyncTaskExecutor}. If no executor is given, the common
+ * {@link ForkJoinPool} is used. Inputs not larger than the grain size are processed sequentially, on the
+ * calling thread.
+ * <p>
+ * The grain size should be chosen so that processing one range takes at least a few microseconds, else the
+ * cost of splitting outweighs the gain. {@link ParallelArrayUtils#DEFAULT_GRAIN_SIZE} is a starting point
+ * for cheap per-element functions.
+ *
+ * <pre>
+ * {@code
+ * ParallelArrayUtils.parallelFor(executor, entities, ParallelArrayUtils.DEFAULT_GRAIN_SIZE, Entity::update);
+ * }
+ * </pre>
+ */
+public class ParallelArrayUtils {
+
+	public static final int DEFAULT_GRAIN_SIZE = 1024;
+
+	/**
+	 * Consumes a range of indices, {@code [from, to)}.
+	 */
+	@FunctionalInterface
+	public interface RangeConsumer {
+		void accept(int from, int to);
+	}
+
+	/**
+	 * Calls the action for sub-ranges of {@code [from, to)}, in parallel.
+	 */
+	public static void parallelFor(AsyncTaskExecutor executor, int from, int to, int grainSize,
+								   RangeConsumer action) {
+
+		if (from >= to) {
+			return;
+		}
+
+		ForkJoinPool pool = pool(executor);
+		grainSize = Math.max(grainSize, 1);
+
+		if (sequential(pool, to - from, grainSize)) {
+			action.accept(from, to);
+			return;
+		}
+
+		pool.invoke(new ForTask(from, to, grainSize, action));
+	}
+
+	public static <T> void parallelFor(AsyncTaskExecutor executor, T[] array, int grainSize, Consumer<T> action) {
+		parallelFor(executor, 0, array.length, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				action.accept(array[i]);
+			}
+		});
+	}
+
+	public static <T> void parallelFor(AsyncTaskExecutor executor, Array<T> array, int grainSize,
+									   Consumer<T> action) {
+		T[] items = array.items;
+		parallelFor(executor, 0, array.size, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				action.accept(items[i]);
+			}
+		});
+	}
+
+	public static void parallelFor(AsyncTaskExecutor executor, int[] array, int grainSize, IntConsumer action) {
+		parallelFor(executor, 0, array.length, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				action.accept(array[i]);
+			}
+		});
+	}
+
+	public static void parallelFor(AsyncTaskExecutor executor, float[] array, int grainSize,
+								   FloatConsumer action) {
+		parallelFor(executor, 0, array.length, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				action.accept(array[i]);
+			}
+		});
+	}
+
+	/**
+	 * Reduces the array in parallel. Each range is reduced with the accumulator, starting from the identity,
+	 * then range results are combined.
+	 */
+	public static <T, R> R parallelReduce(AsyncTaskExecutor executor, T[] array, int grainSize, R identity,
+										  BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+		return parallelReduce(executor, array, array.length, grainSize, identity, accumulator, combiner);
+	}
+
+	public static <T, R> R parallelReduce(AsyncTaskExecutor executor, Array<T> array, int grainSize, R identity,
+										  BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+		return parallelReduce(executor, array.items, array.size, grainSize, identity, accumulator, combiner);
+	}
+
+	private static <T, R> R parallelReduce(AsyncTaskExecutor executor, T[] items, int size, int grainSize,
+										   R identity, BiFunction<R, ? super T, R> accumulator,
+										   BinaryOperator<R> combiner) {
+
+		ForkJoinPool pool = pool(executor);
+		grainSize = Math.max(grainSize, 1);
+
+		if (sequential(pool, size, grainSize)) {
+			return reduce(items, 0, size, identity, accumulator);
+		}
+
+		return pool.invoke(new ReduceTask<>(items, 0, size, grainSize, identity, accumulator, combiner));
+	}
+
+	/**
+	 * Reduces the array in parallel. The operator must be associative.
+	 */
+	public static int parallelReduce(AsyncTaskExecutor executor, int[] array, int grainSize, int identity,
+									 IntBinaryOperator operator) {
+
+		ForkJoinPool pool = pool(executor);
+		grainSize = Math.max(grainSize, 1);
+
+		if (sequential(pool, array.length, grainSize)) {
+			return reduce(array, 0, array.length, identity, operator);
+		}
+
+		IntReduceTask task = new IntReduceTask(array, 0, array.length, grainSize, identity, operator);
+		pool.invoke(task);
+
+		return task.result;
+	}
+
+	/**
+	 * Reduces the array in parallel. The operator must be associative. Note that floating point addition is
+	 * not, so sums may differ slightly from a sequential loop.
+	 */
+	public static float parallelReduce(AsyncTaskExecutor executor, float[] array, int grainSize, float identity,
+									   FloatBinaryOperator operator) {
+
+		ForkJoinPool pool = pool(executor);
+		grainSize = Math.max(grainSize, 1);
+
+		if (sequential(pool, array.length, grainSize)) {
+			return reduce(array, 0, array.length, identity, operator);
+		}
+
+		FloatReduceTask task = new FloatReduceTask(array, 0, array.length, grainSize, identity, operator);
+		pool.invoke(task);
+
+		return task.result;
+	}
+
+	/**
+	 * Searches the array in parallel, and returns the index of any item which fulfills the user-defined
+	 * comparison. This is not necessarily the first one. Ranges not started yet are skipped after a match
+	 * has been found.
+	 * <p>
+	 * Returns -1 if no match is found.
+	 */
+	public static <T> int parallelFindAny(AsyncTaskExecutor executor, T[] array, int grainSize,
+										  Predicate<T> match) {
+		return parallelFindAny(executor, array.length, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				if (match.test(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		});
+	}
+
+	public static <T> int parallelFindAny(AsyncTaskExecutor executor, Array<T> array, int grainSize,
+										  Predicate<T> match) {
+		T[] items = array.items;
+		return parallelFindAny(executor, array.size, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				if (match.test(items[i])) {
+					return i;
+				}
+			}
+			return -1;
+		});
+	}
+
+	public static int parallelFindAny(AsyncTaskExecutor executor, int[] array, int grainSize,
+									  IntPredicate match) {
+		return parallelFindAny(executor, array.length, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				if (match.test(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		});
+	}
+
+	public static int parallelFindAny(AsyncTaskExecutor executor, float[] array, int grainSize,
+									  FloatPredicate match) {
+		return parallelFindAny(executor, array.length, grainSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				if (match.test(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		});
+	}
+
+	private static int parallelFindAny(AsyncTaskExecutor executor, int size, int grainSize, RangeFinder finder) {
+
+		if (size <= 0) {
+			return -1;
+		}
+
+		ForkJoinPool pool = pool(executor);
+		grainSize = Math.max(grainSize, 1);
+
+		if (sequential(pool, size, grainSize)) {
+			return finder.find(0, size);
+		}
+
+		AtomicInteger found = new AtomicInteger(-1);
+		pool.invoke(new FindTask(0, size, grainSize, finder, found));
+
+		return found.get();
+	}
+
+	private static ForkJoinPool pool(AsyncTaskExecutor executor) {
+		return executor != null ? executor.getWorkStealingPool() : ForkJoinPool.commonPool();
+	}
+
+	private static boolean sequential(ForkJoinPool pool, int size, int grainSize) {
+		return size <= grainSize || pool.getParallelism() <= 1;
+	}
+
+	private static <T, R> R reduce(T[] items, int from, int to, R identity,
+								   BiFunction<R, ? super T, R> accumulator) {
+		R result = identity;
+		for (int i = from; i < to; i++) {
+			result = accumulator.apply(result, items[i]);
+		}
+		return result;
+	}
+
+	private static int reduce(int[] array, int from, int to, int identity, IntBinaryOperator operator) {
+		int result = identity;
+		for (int i = from; i < to; i++) {
+			result = operator.applyAsInt(result, array[i]);
+		}
+		return result;
+	}
+
+	private static float reduce(float[] array, int from, int to, float identity, FloatBinaryOperator operator) {
+		float result = identity;
+		for (int i = from; i < to; i++) {
+			result = operator.applyAsFloat(result, array[i]);
+		}
+		return result;
+	}
+
+	@FunctionalInterface
+	private interface RangeFinder {
+		int find(int from, int to);
+	}
+
+	private static class ForTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to, grainSize;
+		private final RangeConsumer action;
+
+		ForTask(int from, int to, int grainSize, RangeConsumer action) {
+			this.from = from;
+			this.to = to;
+			this.grainSize = grainSize;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from <= grainSize) {
+				action.accept(from, to);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+
+			ForTask right = new ForTask(mid, to, grainSize, action);
+			right.fork();
+
+			new ForTask(from, mid, grainSize, action).compute();
+			right.join();
+		}
+	}
+
+	private static class ReduceTask<T, R> extends RecursiveTask<R> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T[] items;
+		private final int from, to, grainSize;
+		private final R identity;
+		private final BiFunction<R, ? super T, R> accumulator;
+		private final BinaryOperator<R> combiner;
+
+		ReduceTask(T[] items, int from, int to, int grainSize, R identity,
+				   BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+			this.items = items;
+			this.from = from;
+			this.to = to;
+			this.grainSize = grainSize;
+			this.identity = identity;
+			this.accumulator = accumulator;
+			this.combiner = combiner;
+		}
+
+		@Override
+		protected R compute() {
+
+			if (to - from <= grainSize) {
+				return reduce(items, from, to, identity, accumulator);
+			}
+
+			int mid = (from + to) >>> 1;
+
+			ReduceTask<T, R> right = new ReduceTask<>(items, mid, to, grainSize, identity, accumulator, combiner);
+			right.fork();
+
+			R left = new ReduceTask<>(items, from, mid, grainSize, identity, accumulator, combiner).compute();
+
+			return combiner.apply(left, right.join());
+		}
+	}
+
+	private static class IntReduceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] array;
+		private final int from, to, grainSize;
+		private final int identity;
+		private final IntBinaryOperator operator;
+
+		int result;
+
+		IntReduceTask(int[] array, int from, int to, int grainSize, int identity, IntBinaryOperator operator) {
+			this.array = array;
+			this.from = from;
+			this.to = to;
+			this.grainSize = grainSize;
+			this.identity = identity;
+			this.operator = operator;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from <= grainSize) {
+				result = reduce(array, from, to, identity, operator);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+
+			IntReduceTask left = new IntReduceTask(array, from, mid, grainSize, identity, operator);
+			IntReduceTask right = new IntReduceTask(array, mid, to, grainSize, identity, operator);
+
+			right.fork();
+			left.compute();
+			right.join();
+
+			result = operator.applyAsInt(left.result, right.result);
+		}
+	}
+
+	private static class FloatReduceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final float[] array;
+		private final int from, to, grainSize;
+		private final float identity;
+		private final FloatBinaryOperator operator;
+
+		float result;
+
+		FloatReduceTask(float[] array, int from, int to, int grainSize, float identity,
+						FloatBinaryOperator operator) {
+			this.array = array;
+			this.from = from;
+			this.to = to;
+			this.grainSize = grainSize;
+			this.identity = identity;
+			this.operator = operator;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from <= grainSize) {
+				result = reduce(array, from, to, identity, operator);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+
+			FloatReduceTask left = new FloatReduceTask(array, from, mid, grainSize, identity, operator);
+			FloatReduceTask right = new FloatReduceTask(array, mid, to, grainSize, identity, operator);
+
+			right.fork();
+			left.compute();
+			right.join();
+
+			result = operator.applyAsFloat(left.result, right.result);
+		}
+	}
+
+	private static class FindTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to, grainSize;
+		private final RangeFinder finder;
+		private final AtomicInteger found;
+
+		FindTask(int from, int to, int grainSize, RangeFinder finder, AtomicInteger found) {
+			this.from = from;
+			this.to = to;
+			this.grainSize = grainSize;
+			this.finder = finder;
+			this.found = found;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (found.get() >= 0) {
+				return;
+			}
+
+			if (to - from <= grainSize) {
+				int index = finder.find(from, to);
+				if (index >= 0) {
+					found.compareAndSet(-1, index);
+				}
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+
+			FindTask right = new FindTask(mid, to, grainSize, finder, found);
+			right.fork();
+
+			new FindTask(from, mid, grainSize, finder, found).compute();
+			right.join();
+		}
+	}
+
+}
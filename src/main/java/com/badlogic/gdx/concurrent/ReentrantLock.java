@@ -7,57 +7,76 @@ import java.util.function.Supplier;
 
 /**
  * A functional style wrapper to {@link java.util.concurrent.locks.ReentrantLock}.
+ * <p>
+ * Locks constructed with a name record contention statistics while {@link LockStatistics} is enabled.
  */
 public class ReentrantLock {
 
 	private final Lock lock = new java.util.concurrent.locks.ReentrantLock();
+	private final LockStatistics statistics;
+
+	public ReentrantLock() {
+		this(null);
+	}
+
+	/**
+	 * @param name name to record {@link LockStatistics} with. Locks with the same name share statistics.
+	 */
+	public ReentrantLock(String name) {
+		statistics = LockStatistics.get(name);
+	}
 
 	public void lock(Runnable runnable) {
+		long acquired = LockStatistics.lock(statistics, lock);
 		try {
-			lock.lock();
 			runnable.run();
 		} finally {
-			lock.unlock();
+			LockStatistics.unlock(statistics, lock, acquired);
 		}
 	}
 
 	public <C> void lock(C context, Consumer<C> consumer) {
+		long acquired = LockStatistics.lock(statistics, lock);
 		try {
-			lock.lock();
 			consumer.accept(context);
 		} finally {
-			lock.unlock();
+			LockStatistics.unlock(statistics, lock, acquired);
 		}
 	}
 
 	public <T> T lock(Supplier<T> supplier) {
+		long acquired = LockStatistics.lock(statistics, lock);
 		try {
-			lock.lock();
 			return supplier.get();
 		} finally {
-			lock.unlock();
+			LockStatistics.unlock(statistics, lock, acquired);
 		}
 	}
 
 	public <T> T tryLock(Supplier<T> supplier, T defaultValue) {
 		if (!lock.tryLock()) {
+			LockStatistics.failed(statistics, 0L);
 			return defaultValue;
 		}
+		long acquired = LockStatistics.acquired(statistics, 0L);
 		try {
 			return supplier.get();
 		} finally {
-			lock.unlock();
+			LockStatistics.unlock(statistics, lock, acquired);
 		}
 	}
 
 	public <T> T tryLock(Supplier<T> supplier, T defaultValue, long time, TimeUnit unit) throws InterruptedException {
+		long start = LockStatistics.begin(statistics);
 		if (!lock.tryLock(time, unit)) {
+			LockStatistics.failed(statistics, start);
 			return defaultValue;
 		}
+		long acquired = LockStatistics.acquired(statistics, start);
 		try {
 			return supplier.get();
 		} finally {
-			lock.unlock();
+			LockStatistics.unlock(statistics, lock, acquired);
 		}
 	}
 
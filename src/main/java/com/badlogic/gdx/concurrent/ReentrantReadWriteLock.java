@@ -7,97 +7,124 @@ import java.util.function.Supplier;
 
 /**
  * A functional style wrapper to {@link java.util.concurrent.locks.ReentrantReadWriteLock}.
+ * <p>
+ * Locks constructed with a name record contention statistics while {@link LockStatistics} is enabled. Read
+ * and write locks are recorded separately.
  */
 public class ReentrantReadWriteLock {
 
 	private final ReadWriteLock lock = new java.util.concurrent.locks.ReentrantReadWriteLock();
+	private final LockStatistics readStatistics;
+	private final LockStatistics writeStatistics;
+
+	public ReentrantReadWriteLock() {
+		this(null);
+	}
+
+	/**
+	 * @param name name to record {@link LockStatistics} with. Locks with the same name share statistics.
+	 */
+	public ReentrantReadWriteLock(String name) {
+		readStatistics = LockStatistics.get(name != null ? name + " (read)" : null);
+		writeStatistics = LockStatistics.get(name != null ? name + " (write)" : null);
+	}
 
 	public void read(Runnable runnable) {
+		long acquired = LockStatistics.lock(readStatistics, lock.readLock());
 		try {
-			lock.readLock().lock();
 			runnable.run();
 		} finally {
-			lock.readLock().unlock();
+			LockStatistics.unlock(readStatistics, lock.readLock(), acquired);
 		}
 	}
 
 	public <C> void read(C context, Consumer<C> consumer) {
+		long acquired = LockStatistics.lock(readStatistics, lock.readLock());
 		try {
-			lock.readLock().lock();
 			consumer.accept(context);
 		} finally {
-			lock.readLock().unlock();
+			LockStatistics.unlock(readStatistics, lock.readLock(), acquired);
 		}
 	}
 
 	public <T> T read(Supplier<T> supplier) {
+		long acquired = LockStatistics.lock(readStatistics, lock.readLock());
 		try {
-			lock.readLock().lock();
 			return supplier.get();
 		} finally {
-			lock.readLock().unlock();
+			LockStatistics.unlock(readStatistics, lock.readLock(), acquired);
 		}
 	}
 
 	public <T> T tryRead(Supplier<T> supplier, T defaultValue) {
 		if (!lock.readLock().tryLock()) {
+			LockStatistics.failed(readStatistics, 0L);
 			return defaultValue;
 		}
+		long acquired = LockStatistics.acquired(readStatistics, 0L);
 		try {
 			return supplier.get();
 		} finally {
-			lock.readLock().unlock();
+			LockStatistics.unlock(readStatistics, lock.readLock(), acquired);
 		}
 	}
 
 	public <T> T tryRead(Supplier<T> supplier, T defaultValue, long time, TimeUnit unit) throws InterruptedException {
+		long start = LockStatistics.begin(readStatistics);
 		if (!lock.readLock().tryLock(time, unit)) {
+			LockStatistics.failed(readStatistics, start);
 			return defaultValue;
 		}
+		long acquired = LockStatistics.acquired(readStatistics, start);
 		try {
 			return supplier.get();
 		} finally {
-			lock.readLock().unlock();
+			LockStatistics.unlock(readStatistics, lock.readLock(), acquired);
 		}
 	}
 
 	public void write(Runnable runnable) {
+		long acquired = LockStatistics.lock(writeStatistics, lock.writeLock());
 		try {
-			lock.writeLock().lock();
 			runnable.run();
 		} finally {
-			lock.writeLock().unlock();
+			LockStatistics.unlock(writeStatistics, lock.writeLock(), acquired);
 		}
 	}
 
 	public <T> T write(Supplier<T> supplier) {
+		long acquired = LockStatistics.lock(writeStatistics, lock.writeLock());
 		try {
-			lock.writeLock().lock();
 			return supplier.get();
 		} finally {
-			lock.writeLock().unlock();
+			LockStatistics.unlock(writeStatistics, lock.writeLock(), acquired);
 		}
 	}
 
 	public <T> T tryWrite(Supplier<T> supplier, T defaultValue) {
 		if (!lock.writeLock().tryLock()) {
+			LockStatistics.failed(writeStatistics, 0L);
 			return defaultValue;
 		}
+		long acquired = LockStatistics.acquired(writeStatistics, 0L);
 		try {
 			return supplier.get();
 		} finally {
-			lock.writeLock().unlock();
+			LockStatistics.unlock(writeStatistics, lock.writeLock(), acquired);
 		}
 	}
 
 	public <T> T tryWrite(Supplier<T> supplier, T defaultValue, long time, TimeUnit unit) throws InterruptedException {
+		long start = LockStatistics.begin(writeStatistics);
 		if (!lock.writeLock().tryLock(time, unit)) {
+			LockStatistics.failed(writeStatistics, start);
 			return defaultValue;
 		}
+		long acquired = LockStatistics.acquired(writeStatistics, start);
 		try {
 			return supplier.get();
 		} finally {
-			lock.writeLock().unlock();
+			LockStatistics.unlock(writeStatistics, lock.writeLock(), acquired);
 		}
 	}
 
@@ -0,0 +1,262 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.utils.Host;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Base class of bounded, lock-free ring buffers for passing messages between threads.
+ * <p>
+ * Slots are allocated once, and reused. Head and tail indices are placed on separate cache lines, so that
+ * producer and consumer threads don't contend on the same line. Each side also keeps a cached copy of the
+ * other side's index, which it only refreshes if the buffer appears to be full, or empty.
+ * <p>
+ * Only one thread may consume messages at a time. See {@link SpscRingBuffer} and {@link MpscRingBuffer} for
+ * the number of producer threads supported.
+ * <p>
+ * The {@link WaitStrategy} selects how {@link RingBuffer#put(Object)} and {@link RingBuffer#take()} wait
+ * for space, or for messages. Non-blocking calls are always available.
+ */
+public abstract class RingBuffer<T> {
+
+	public enum WaitStrategy {
+		/**
+		 * Parks the waiting thread, and signals it from the other side. Slightly increases the cost of each
+		 * operation, but doesn't burn CPU time while waiting.
+		 */
+		BLOCKING,
+		/**
+		 * Busy-spins. Lowest latency, but occupies a core while waiting.
+		 */
+		SPINNING,
+		/**
+		 * Spins for a short while, then yields the thread between attempts.
+		 */
+		YIELDING
+	}
+
+	/**
+	 * Number of longs per cache line of the host CPU, but at least 8, for 64 byte lines.
+	 */
+	static final int PAD = Math.max(Host.cpu.cacheLineSize / 8, 8);
+
+	static final int HEAD = PAD;
+	static final int TAIL_CACHE = PAD + 1;
+	static final int TAIL = 3 * PAD;
+	static final int HEAD_CACHE = 3 * PAD + 1;
+
+	private static final int SPIN_TRIES = 100;
+	private static final long PRODUCER_PARK_NANOS = 50_000L;
+
+	/**
+	 * Indices, separated by padding. Consumer and producer each write to their own cache line only.
+	 */
+	final AtomicLongArray indices = new AtomicLongArray(5 * PAD);
+
+	final int capacity;
+	final int mask;
+
+	final WaitStrategy waitStrategy;
+	private final boolean singleProducer;
+
+	private volatile Thread consumerWaiter;
+	private volatile Thread producerWaiter;
+
+	RingBuffer(int capacity, WaitStrategy waitStrategy, boolean singleProducer) {
+
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+
+		this.capacity = nextPowerOfTwo(capacity);
+		this.mask = this.capacity - 1;
+		this.waitStrategy = waitStrategy;
+		this.singleProducer = singleProducer;
+	}
+
+	/**
+	 * Adds a message to the buffer, if there's space left.
+	 *
+	 * @return false if the buffer is full
+	 */
+	public abstract boolean offer(T item);
+
+	/**
+	 * Adds as many messages as there is space left for, publishing them at once.
+	 *
+	 * @return the number of messages added
+	 */
+	public abstract int offer(T[] items, int offset, int count);
+
+	/**
+	 * Removes the oldest message from the buffer.
+	 *
+	 * @return the message, or null if the buffer is empty
+	 */
+	public abstract T poll();
+
+	/**
+	 * Removes up to {@code limit} messages, and passes them to the consumer in order. Slots are only released
+	 * to producers after the last message has been consumed.
+	 * <p>
+	 * If the consumer throws, the exception is passed on. The message it has thrown on counts as removed, and
+	 * the remaining messages stay in the buffer.
+	 *
+	 * @return the number of messages drained
+	 */
+	public abstract int drain(Consumer<T> consumer, int limit);
+
+	/**
+	 * Removes all messages currently in the buffer, and passes them to the consumer in order.
+	 */
+	public int drain(Consumer<T> consumer) {
+		return drain(consumer, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Adds a message, waiting for space if the buffer is full.
+	 */
+	public void put(T item) throws InterruptedException {
+		for (int idle = 0; !offer(item); idle++) {
+			waitForSpace(idle);
+		}
+	}
+
+	/**
+	 * Removes the oldest message, waiting for one if the buffer is empty.
+	 */
+	public T take() throws InterruptedException {
+		T item;
+		for (int idle = 0; (item = poll()) == null; idle++) {
+			waitForItem(idle);
+		}
+		return item;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of messages in the buffer. This is only a snapshot if other threads access the
+	 * buffer concurrently.
+	 */
+	public int size() {
+		long head = indices.get(HEAD);
+		long tail = indices.get(TAIL);
+		return (int) Math.max(Math.min(tail - head, capacity), 0L);
+	}
+
+	public boolean isEmpty() {
+		return indices.get(TAIL) == indices.get(HEAD);
+	}
+
+	/**
+	 * Publishes the head index after messages have been consumed.
+	 */
+	void publishHead(long head) {
+
+		if (waitStrategy != WaitStrategy.BLOCKING) {
+			indices.lazySet(HEAD, head);
+			return;
+		}
+
+		// a full store, so that the waiter check below can't be reordered before it
+		indices.set(HEAD, head);
+
+		Thread thread = producerWaiter;
+
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Signals the consumer after messages have been published.
+	 */
+	void signalConsumer() {
+
+		if (waitStrategy != WaitStrategy.BLOCKING) {
+			return;
+		}
+
+		Thread thread = consumerWaiter;
+
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	private void waitForItem(int idle) throws InterruptedException {
+
+		if (waitStrategy == WaitStrategy.BLOCKING && idle >= SPIN_TRIES) {
+
+			consumerWaiter = Thread.currentThread();
+
+			try {
+				// check again after registering, a producer may have published in between
+				if (isEmpty()) {
+					LockSupport.park(this);
+				}
+			} finally {
+				consumerWaiter = null;
+			}
+
+		} else {
+			idle(idle);
+		}
+
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	private void waitForSpace(int idle) throws InterruptedException {
+
+		if (waitStrategy == WaitStrategy.BLOCKING && idle >= SPIN_TRIES) {
+
+			if (singleProducer) {
+
+				producerWaiter = Thread.currentThread();
+
+				try {
+					if (size() >= capacity) {
+						LockSupport.park(this);
+					}
+				} finally {
+					producerWaiter = null;
+				}
+
+			} else {
+				// there may be more than one producer waiting, which isn't tracked
+				LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+			}
+
+		} else {
+			idle(idle);
+		}
+
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	private void idle(int idle) {
+		if (waitStrategy != WaitStrategy.SPINNING && idle >= SPIN_TRIES) {
+			Thread.yield();
+		}
+	}
+
+	static void checkNotNull(Object item) {
+		if (item == null) {
+			throw new NullPointerException("Null messages are not supported!");
+		}
+	}
+
+	private static int nextPowerOfTwo(int value) {
+		return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
+}
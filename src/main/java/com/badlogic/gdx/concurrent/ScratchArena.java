@@ -0,0 +1,243 @@
+package com.badlogic.gdx.concurrent;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Per-thread scratch memory for temporary arrays and buffers.
+ * <p>
+ * Each thread gets its own arena on first use of {@link ScratchArena#get()}, so borrowing memory needs
+ * neither synchronization nor, once the arena is warmed up, any allocation. Arrays are handed out in
+ * power-of-two size classes, so the array returned may be larger than requested.
+ * <p>
+ * Borrowed memory is returned in scopes: {@link ScratchArena#mark()} remembers the current position, and
+ * {@link ScratchArena#reset(int)} returns everything borrowed since then. Object arrays are cleared when
+ * they are returned.
+ *
+ * <pre>
+ * {@code
+ * ScratchArena arena = ScratchArena.get();
+ * int mark = arena.mark();
+ * try {
+ *     float[] weights = arena.floats(count);
+ *     ...
+ * } finally {
+ *     arena.reset(mark);
+ * }
+ * }
+ * </pre>
+ *
+ * Memory is kept by the arena until {@link ScratchArena#trim()} is called, or the thread terminates.
+ */
+public final class ScratchArena {
+
+	private static final ThreadLocal<ScratchArena> arenas = ThreadLocal.withInitial(ScratchArena::new);
+
+	private static final int MIN_SIZE_CLASS = 4;
+	private static final int SIZE_CLASSES = 31;
+
+	private final Pool floats = new Pool(float[]::new, false);
+	private final Pool ints = new Pool(int[]::new, false);
+	private final Pool buffers = new Pool(
+			size -> ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()), false);
+
+	private final Array<Pool> pools = new Array<>(true, 8, Pool.class);
+	private final IdentityMap<Class<?>, Pool> objectPools = new IdentityMap<>();
+
+	/**
+	 * Borrowed entries, as pool index and size class, in borrow order.
+	 */
+	private int[] borrowed = new int[64];
+	private int borrowedCount;
+
+	private ScratchArena() {
+		register(floats);
+		register(ints);
+		register(buffers);
+	}
+
+	/**
+	 * Returns the arena of the calling thread.
+	 */
+	public static ScratchArena get() {
+		return arenas.get();
+	}
+
+	/**
+	 * Returns a float array with at least the given length. The content is undefined.
+	 */
+	public float[] floats(int minLength) {
+		return (float[]) borrow(floats, minLength);
+	}
+
+	/**
+	 * Returns an int array with at least the given length. The content is undefined.
+	 */
+	public int[] ints(int minLength) {
+		return (int[]) borrow(ints, minLength);
+	}
+
+	/**
+	 * Returns a direct {@link ByteBuffer} in native byte order, with at least the given capacity. Position
+	 * is 0, and limit is set to the capacity requested. The content is undefined.
+	 */
+	public ByteBuffer bytes(int minCapacity) {
+		ByteBuffer buffer = (ByteBuffer) borrow(buffers, minCapacity);
+		buffer.clear();
+		buffer.limit(minCapacity);
+		return buffer;
+	}
+
+	/**
+	 * Returns an array of the given component type, with at least the given length. All elements are null.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T[] objects(Class<T> componentType, int minLength) {
+
+		Pool pool = objectPools.get(componentType);
+
+		if (pool == null) {
+			pool = new Pool(size -> java.lang.reflect.Array.newInstance(componentType, size), true);
+			objectPools.put(componentType, pool);
+			register(pool);
+		}
+
+		return (T[]) borrow(pool, minLength);
+	}
+
+	/**
+	 * Returns the current position, to be passed to {@link ScratchArena#reset(int)}.
+	 */
+	public int mark() {
+		return borrowedCount;
+	}
+
+	/**
+	 * Returns everything borrowed since the given mark. Arrays borrowed after that mark must not be used
+	 * anymore.
+	 */
+	public void reset(int mark) {
+
+		if (mark < 0 || mark > borrowedCount) {
+			throw new IllegalArgumentException("Invalid mark: " + mark);
+		}
+
+		while (borrowedCount > mark) {
+			int entry = borrowed[--borrowedCount];
+			pools.items[entry >>> 5].release(entry & 31);
+		}
+	}
+
+	/**
+	 * Returns everything borrowed from this arena.
+	 */
+	public void reset() {
+		reset(0);
+	}
+
+	/**
+	 * Releases all arrays and buffers which are not borrowed at the moment.
+	 */
+	public void trim() {
+		for (int i = 0; i < pools.size; i++) {
+			pools.items[i].trim();
+		}
+	}
+
+	private void register(Pool pool) {
+		pool.index = pools.size;
+		pools.add(pool);
+	}
+
+	private Object borrow(Pool pool, int minLength) {
+
+		if (minLength < 0) {
+			throw new IllegalArgumentException("Invalid length: " + minLength);
+		}
+
+		int sizeClass = sizeClass(minLength);
+
+		if (borrowedCount == borrowed.length) {
+			borrowed = Arrays.copyOf(borrowed, borrowedCount * 2);
+		}
+
+		Object array = pool.borrow(sizeClass);
+		borrowed[borrowedCount++] = (pool.index << 5) | sizeClass;
+
+		return array;
+	}
+
+	private static int sizeClass(int length) {
+
+		int sizeClass = 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1);
+
+		if (sizeClass >= SIZE_CLASSES) {
+			throw new IllegalArgumentException("Scratch array too large: " + length);
+		}
+
+		return Math.max(sizeClass, MIN_SIZE_CLASS);
+	}
+
+	/**
+	 * Stacks of arrays of one type, per size class.
+	 */
+	private static final class Pool {
+
+		private final IntFunction<Object> allocator;
+		private final boolean clear;
+
+		private final Object[][] arrays = new Object[SIZE_CLASSES][];
+		private final int[] used = new int[SIZE_CLASSES];
+
+		int index;
+
+		Pool(IntFunction<Object> allocator, boolean clear) {
+			this.allocator = allocator;
+			this.clear = clear;
+		}
+
+		Object borrow(int sizeClass) {
+
+			Object[] stack = arrays[sizeClass];
+			int n = used[sizeClass];
+
+			if (stack == null) {
+				stack = arrays[sizeClass] = new Object[4];
+			} else if (n == stack.length) {
+				stack = arrays[sizeClass] = Arrays.copyOf(stack, n * 2);
+			}
+
+			Object array = stack[n];
+
+			if (array == null) {
+				array = stack[n] = allocator.apply(1 << sizeClass);
+			}
+
+			used[sizeClass] = n + 1;
+
+			return array;
+		}
+
+		void release(int sizeClass) {
+			Object array = arrays[sizeClass][--used[sizeClass]];
+			if (clear) {
+				Arrays.fill((Object[]) array, null);
+			}
+		}
+
+		void trim() {
+			for (int i = 0; i < SIZE_CLASSES; i++) {
+				Object[] stack = arrays[i];
+				if (stack != null) {
+					Arrays.fill(stack, used[i], stack.length, null);
+				}
+			}
+		}
+	}
+
+}
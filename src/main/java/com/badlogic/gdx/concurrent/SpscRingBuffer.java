@@ -0,0 +1,152 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free single-producer/single-consumer ring buffer.
+ * <p>
+ * One thread may add messages, and one other thread may remove them. Messages are stored in a plain array,
+ * and published by an ordered write of the tail index, so neither side needs to use atomic instructions.
+ *
+ * <pre>
+ * {@code
+ * SpscRingBuffer<Command> commands = new SpscRingBuffer<>(1024, RingBuffer.WaitStrategy.YIELDING);
+ *
+ * // main thread
+ * commands.offer(command);
+ *
+ * // worker thread
+ * commands.drain(Command::execute);
+ * }
+ * </pre>
+ */
+public class SpscRingBuffer<T> extends RingBuffer<T> {
+
+	private final T[] buffer;
+
+	public SpscRingBuffer(int capacity) {
+		this(capacity, WaitStrategy.YIELDING);
+	}
+
+	@SuppressWarnings("unchecked")
+	public SpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+		super(capacity, waitStrategy, true);
+		buffer = (T[]) new Object[this.capacity];
+	}
+
+	@Override
+	public boolean offer(T item) {
+
+		checkNotNull(item);
+
+		long tail = indices.get(TAIL);
+
+		if (tail - indices.get(HEAD_CACHE) >= capacity) {
+			long head = indices.get(HEAD);
+			indices.lazySet(HEAD_CACHE, head);
+			if (tail - head >= capacity) {
+				return false;
+			}
+		}
+
+		buffer[(int) tail & mask] = item;
+		publishTail(tail + 1);
+
+		return true;
+	}
+
+	@Override
+	public int offer(T[] items, int offset, int count) {
+
+		long tail = indices.get(TAIL);
+		long head = indices.get(HEAD_CACHE);
+
+		if (tail - head + count > capacity) {
+			head = indices.get(HEAD);
+			indices.lazySet(HEAD_CACHE, head);
+		}
+
+		int n = (int) Math.min(count, capacity - (tail - head));
+
+		if (n <= 0) {
+			return 0;
+		}
+
+		for (int i = 0; i < n; i++) {
+			T item = items[offset + i];
+			checkNotNull(item);
+			buffer[(int) (tail + i) & mask] = item;
+		}
+
+		publishTail(tail + n);
+
+		return n;
+	}
+
+	@Override
+	public T poll() {
+
+		long head = indices.get(HEAD);
+
+		if (head >= indices.get(TAIL_CACHE)) {
+			long tail = indices.get(TAIL);
+			indices.lazySet(TAIL_CACHE, tail);
+			if (head >= tail) {
+				return null;
+			}
+		}
+
+		int index = (int) head & mask;
+
+		T item = buffer[index];
+		buffer[index] = null;
+
+		publishHead(head + 1);
+
+		return item;
+	}
+
+	@Override
+	public int drain(Consumer<T> consumer, int limit) {
+
+		long head = indices.get(HEAD);
+		long tail = indices.get(TAIL);
+
+		indices.lazySet(TAIL_CACHE, tail);
+
+		int n = (int) Math.min(tail - head, limit);
+
+		if (n <= 0) {
+			return 0;
+		}
+
+		int consumed = 0;
+
+		try {
+
+			while (consumed < n) {
+				int index = (int) (head + consumed) & mask;
+				T item = buffer[index];
+				buffer[index] = null;
+				consumed++;
+				consumer.accept(item);
+			}
+
+		} finally {
+			// also if the consumer has thrown, so that no emptied slot stays unpublished
+			publishHead(head + consumed);
+		}
+
+		return n;
+	}
+
+	private void publishTail(long tail) {
+		if (waitStrategy == WaitStrategy.BLOCKING) {
+			indices.set(TAIL, tail);
+			signalConsumer();
+		} else {
+			indices.lazySet(TAIL, tail);
+		}
+	}
+
+}
@@ -0,0 +1,272 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A functional style wrapper to {@link java.util.concurrent.locks.StampedLock}.
+ * <p>
+ * Functions returning a value are read optimistically first, without writing to shared state. If a write
+ * happened in between, the function is called again under a read lock. This scales much better than
+ * {@link ReentrantReadWriteLock} with many reader threads, but the function passed must tolerate reading
+ * inconsistent state on its first call, and must not have side effects. Runtime exceptions thrown while
+ * reading optimistically are discarded if the read turns out to be invalid.
+ * <p>
+ * Unlike the other lock wrappers, this lock is not reentrant.
+ */
+public class StampedLock {
+
+	private final java.util.concurrent.locks.StampedLock lock = new java.util.concurrent.locks.StampedLock();
+
+	/**
+	 * Calls the runnable under a read lock. This is never optimistic, since the runnable has no result
+	 * which could be discarded.
+	 */
+	public void read(Runnable runnable) {
+		long stamp = lock.readLock();
+		try {
+			runnable.run();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Calls the consumer under a read lock. This is never optimistic.
+	 */
+	public <C> void read(C context, Consumer<C> consumer) {
+		long stamp = lock.readLock();
+		try {
+			consumer.accept(context);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Reads optimistically, falling back to a read lock if the result turns out to be invalid.
+	 */
+	public <T> T read(Supplier<T> supplier) {
+
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0L) {
+			try {
+				T result = supplier.get();
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException e) {
+				// may be caused by reading inconsistent state
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.readLock();
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Reads optimistically, falling back to a read lock if the result turns out to be invalid.
+	 */
+	public <C, T> T read(C context, Function<C, T> function) {
+
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0L) {
+			try {
+				T result = function.apply(context);
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException e) {
+				// may be caused by reading inconsistent state
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.readLock();
+		try {
+			return function.apply(context);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Reads optimistically, falling back to a read lock if the result turns out to be invalid. Returns the
+	 * default value if the read lock is not available immediately.
+	 */
+	public <T> T tryRead(Supplier<T> supplier, T defaultValue) {
+
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0L) {
+			try {
+				T result = supplier.get();
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException e) {
+				// may be caused by reading inconsistent state
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.tryReadLock();
+
+		if (stamp == 0L) {
+			return defaultValue;
+		}
+
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public <T> T tryRead(Supplier<T> supplier, T defaultValue, long time, TimeUnit unit) throws InterruptedException {
+
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0L) {
+			try {
+				T result = supplier.get();
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException e) {
+				// may be caused by reading inconsistent state
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.tryReadLock(time, unit);
+
+		if (stamp == 0L) {
+			return defaultValue;
+		}
+
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public void write(Runnable runnable) {
+		long stamp = lock.writeLock();
+		try {
+			runnable.run();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public <T> T write(Supplier<T> supplier) {
+		long stamp = lock.writeLock();
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public <T> T tryWrite(Supplier<T> supplier, T defaultValue) {
+		long stamp = lock.tryWriteLock();
+		if (stamp == 0L) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public <T> T tryWrite(Supplier<T> supplier, T defaultValue, long time, TimeUnit unit) throws InterruptedException {
+		long stamp = lock.tryWriteLock(time, unit);
+		if (stamp == 0L) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Checks a condition, and runs the writer only if it is true.
+	 * <p>
+	 * The condition is tested optimistically first, so no lock is taken at all in the common case that it
+	 * is false. Otherwise it is tested again under a read lock, which is then upgraded to a write lock. If
+	 * the upgrade fails because other readers hold the lock, the read lock is released, a write lock is
+	 * acquired, and the condition is tested once more.
+	 *
+	 * <pre>
+	 * {@code
+	 * lock.writeIf(() -> !map.containsKey(key), () -> map.put(key, value));
+	 * }
+	 * </pre>
+	 *
+	 * @return true if the writer has been called
+	 */
+	public boolean writeIf(BooleanSupplier condition, Runnable writer) {
+
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0L) {
+			try {
+				if (!condition.getAsBoolean() && lock.validate(stamp)) {
+					return false;
+				}
+			} catch (RuntimeException e) {
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.readLock();
+
+		try {
+
+			while (condition.getAsBoolean()) {
+
+				long writeStamp = lock.tryConvertToWriteLock(stamp);
+
+				if (writeStamp != 0L) {
+					stamp = writeStamp;
+					writer.run();
+					return true;
+				}
+
+				lock.unlockRead(stamp);
+				stamp = lock.writeLock();
+			}
+
+			return false;
+
+		} finally {
+			lock.unlock(stamp);
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A functional style lock, split into a power-of-two number of {@link java.util.concurrent.locks.ReentrantLock}
+ * stripes. Each key is mapped to one stripe by its hash, so threads accessing different keys of a large,
+ * keyed structure rarely contend with each other.
+ * <p>
+ * Operations spanning multiple keys can lock all of their stripes with {@link StripedLock#lockAll(Object[], Supplier)}.
+ * Stripes are acquired in ascending order to avoid deadlocks.
+ *
+ * <pre>
+ * {@code
+ * StripedLock locks = new StripedLock(64);
+ * Entity entity = locks.lock(id, () -> entities.get(id));
+ * }
+ * </pre>
+ */
+public class StripedLock {
+
+	private final java.util.concurrent.locks.ReentrantLock[] stripes;
+	private final int mask;
+
+	public StripedLock(int stripes) {
+
+		int count = Stripes.count(stripes);
+
+		this.stripes = new java.util.concurrent.locks.ReentrantLock[count];
+		this.mask = count - 1;
+
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new java.util.concurrent.locks.ReentrantLock();
+		}
+	}
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	public void lock(Object key, Runnable runnable) {
+		java.util.concurrent.locks.ReentrantLock lock = stripe(key);
+		lock.lock();
+		try {
+			runnable.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <C> void lock(Object key, C context, Consumer<C> consumer) {
+		java.util.concurrent.locks.ReentrantLock lock = stripe(key);
+		lock.lock();
+		try {
+			consumer.accept(context);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T lock(Object key, Supplier<T> supplier) {
+		java.util.concurrent.locks.ReentrantLock lock = stripe(key);
+		lock.lock();
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T tryLock(Object key, Supplier<T> supplier, T defaultValue) {
+		java.util.concurrent.locks.ReentrantLock lock = stripe(key);
+		if (!lock.tryLock()) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T tryLock(Object key, Supplier<T> supplier, T defaultValue,
+						 long time, TimeUnit unit) throws InterruptedException {
+		java.util.concurrent.locks.ReentrantLock lock = stripe(key);
+		if (!lock.tryLock(time, unit)) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Locks the stripes of all keys, in ascending order, then runs the runnable.
+	 */
+	public void lockAll(Object[] keys, Runnable runnable) {
+		int[] indices = Stripes.sortedIndices(keys, mask);
+		int locked = 0;
+		try {
+			for (; locked < indices.length; locked++) {
+				stripes[indices[locked]].lock();
+			}
+			runnable.run();
+		} finally {
+			unlockAll(indices, locked);
+		}
+	}
+
+	/**
+	 * Locks the stripes of all keys, in ascending order, then calls the supplier.
+	 */
+	public <T> T lockAll(Object[] keys, Supplier<T> supplier) {
+		int[] indices = Stripes.sortedIndices(keys, mask);
+		int locked = 0;
+		try {
+			for (; locked < indices.length; locked++) {
+				stripes[indices[locked]].lock();
+			}
+			return supplier.get();
+		} finally {
+			unlockAll(indices, locked);
+		}
+	}
+
+	private void unlockAll(int[] indices, int locked) {
+		for (int i = locked - 1; i >= 0; i--) {
+			stripes[indices[i]].unlock();
+		}
+	}
+
+	private java.util.concurrent.locks.ReentrantLock stripe(Object key) {
+		return stripes[Stripes.index(key, mask)];
+	}
+
+}
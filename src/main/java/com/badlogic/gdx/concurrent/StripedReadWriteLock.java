@@ -0,0 +1,207 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A functional style read/write lock, split into a power-of-two number of
+ * {@link java.util.concurrent.locks.ReentrantReadWriteLock} stripes, selected by key hash.
+ * <p>
+ * Operations spanning multiple keys can lock all of their stripes with
+ * {@link StripedReadWriteLock#readAll(Object[], Supplier)} or {@link StripedReadWriteLock#writeAll(Object[], Runnable)}.
+ * Stripes are acquired in ascending order to avoid deadlocks.
+ *
+ * @see StripedLock
+ */
+public class StripedReadWriteLock {
+
+	private final java.util.concurrent.locks.ReentrantReadWriteLock[] stripes;
+	private final int mask;
+
+	public StripedReadWriteLock(int stripes) {
+
+		int count = Stripes.count(stripes);
+
+		this.stripes = new java.util.concurrent.locks.ReentrantReadWriteLock[count];
+		this.mask = count - 1;
+
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new java.util.concurrent.locks.ReentrantReadWriteLock();
+		}
+	}
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	public void read(Object key, Runnable runnable) {
+		Lock lock = stripe(key).readLock();
+		lock.lock();
+		try {
+			runnable.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <C> void read(Object key, C context, Consumer<C> consumer) {
+		Lock lock = stripe(key).readLock();
+		lock.lock();
+		try {
+			consumer.accept(context);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T read(Object key, Supplier<T> supplier) {
+		Lock lock = stripe(key).readLock();
+		lock.lock();
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T tryRead(Object key, Supplier<T> supplier, T defaultValue) {
+		Lock lock = stripe(key).readLock();
+		if (!lock.tryLock()) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T tryRead(Object key, Supplier<T> supplier, T defaultValue,
+						 long time, TimeUnit unit) throws InterruptedException {
+		Lock lock = stripe(key).readLock();
+		if (!lock.tryLock(time, unit)) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void write(Object key, Runnable runnable) {
+		Lock lock = stripe(key).writeLock();
+		lock.lock();
+		try {
+			runnable.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <C> void write(Object key, C context, Consumer<C> consumer) {
+		Lock lock = stripe(key).writeLock();
+		lock.lock();
+		try {
+			consumer.accept(context);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T write(Object key, Supplier<T> supplier) {
+		Lock lock = stripe(key).writeLock();
+		lock.lock();
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T tryWrite(Object key, Supplier<T> supplier, T defaultValue) {
+		Lock lock = stripe(key).writeLock();
+		if (!lock.tryLock()) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public <T> T tryWrite(Object key, Supplier<T> supplier, T defaultValue,
+						  long time, TimeUnit unit) throws InterruptedException {
+		Lock lock = stripe(key).writeLock();
+		if (!lock.tryLock(time, unit)) {
+			return defaultValue;
+		}
+		try {
+			return supplier.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Read-locks the stripes of all keys, in ascending order, then calls the supplier.
+	 */
+	public <T> T readAll(Object[] keys, Supplier<T> supplier) {
+		int[] indices = Stripes.sortedIndices(keys, mask);
+		int locked = 0;
+		try {
+			for (; locked < indices.length; locked++) {
+				stripes[indices[locked]].readLock().lock();
+			}
+			return supplier.get();
+		} finally {
+			for (int i = locked - 1; i >= 0; i--) {
+				stripes[indices[i]].readLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Write-locks the stripes of all keys, in ascending order, then runs the runnable.
+	 */
+	public void writeAll(Object[] keys, Runnable runnable) {
+		int[] indices = Stripes.sortedIndices(keys, mask);
+		int locked = 0;
+		try {
+			for (; locked < indices.length; locked++) {
+				stripes[indices[locked]].writeLock().lock();
+			}
+			runnable.run();
+		} finally {
+			for (int i = locked - 1; i >= 0; i--) {
+				stripes[indices[i]].writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Write-locks the stripes of all keys, in ascending order, then calls the supplier.
+	 */
+	public <T> T writeAll(Object[] keys, Supplier<T> supplier) {
+		int[] indices = Stripes.sortedIndices(keys, mask);
+		int locked = 0;
+		try {
+			for (; locked < indices.length; locked++) {
+				stripes[indices[locked]].writeLock().lock();
+			}
+			return supplier.get();
+		} finally {
+			for (int i = locked - 1; i >= 0; i--) {
+				stripes[indices[i]].writeLock().unlock();
+			}
+		}
+	}
+
+	private java.util.concurrent.locks.ReentrantReadWriteLock stripe(Object key) {
+		return stripes[Stripes.index(key, mask)];
+	}
+
+}
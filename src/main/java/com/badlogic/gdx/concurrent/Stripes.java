@@ -0,0 +1,56 @@
+package com.badlogic.gdx.concurrent;
+
+import java.util.Arrays;
+
+/**
+ * Helper functions shared by {@link StripedLock} and {@link StripedReadWriteLock}.
+ */
+final class Stripes {
+
+	/**
+	 * Rounds the number of stripes up to the next power of two.
+	 */
+	static int count(int stripes) {
+
+		if (stripes < 1 || stripes > (1 << 16)) {
+			throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+		}
+
+		return stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+	}
+
+	/**
+	 * Selects a stripe by key hash. The hash is spread like in {@link java.util.HashMap}, so that keys only
+	 * differing in their upper bits don't map to the same stripe.
+	 */
+	static int index(Object key, int mask) {
+		int h = key.hashCode();
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Returns the distinct stripe indices of all keys, in ascending order. Stripes are always acquired in
+	 * this order, so that two threads locking overlapping sets of keys can't deadlock.
+	 */
+	static int[] sortedIndices(Object[] keys, int mask) {
+
+		int[] indices = new int[keys.length];
+
+		for (int i = 0; i < keys.length; i++) {
+			indices[i] = index(keys[i], mask);
+		}
+
+		Arrays.sort(indices);
+
+		int count = 0;
+
+		for (int i = 0; i < indices.length; i++) {
+			if (i == 0 || indices[i] != indices[count - 1]) {
+				indices[count++] = indices[i];
+			}
+		}
+
+		return count < indices.length ? Arrays.copyOf(indices, count) : indices;
+	}
+
+}
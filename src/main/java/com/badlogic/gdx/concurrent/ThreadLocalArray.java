@@ -8,6 +8,8 @@ import java.util.function.Supplier;
 
 /**
  * A convenience wrapper to {@link ThreadLocal} storing an array of objects.
+ * <p>
+ * The array is created, and filled, on first access by each thread.
  *
  * <pre>
  * {@code
@@ -18,15 +20,20 @@ import java.util.function.Supplier;
  */
 public class ThreadLocalArray<T> implements Supplier<T[]> {
 
-	private final ThreadLocal<T[]> tls = new ThreadLocal<>();
+	private final ThreadLocal<T[]> tls;
 
 	public ThreadLocalArray(int capacity, Class<? extends T> clazz) {
 		this(capacity, clazz, () -> ClassReflection.newInstance(clazz));
 	}
 
-	@SuppressWarnings("unchecked")
 	public ThreadLocalArray(int capacity, Class<? extends T> clazz,
 							ThrowableSupplier<T, ReflectionException> initialValueSupplier) {
+		tls = ThreadLocal.withInitial(() -> create(capacity, clazz, initialValueSupplier));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T[] create(int capacity, Class<? extends T> clazz,
+								  ThrowableSupplier<T, ReflectionException> initialValueSupplier) {
 
 		try {
 
@@ -36,7 +43,7 @@ public class ThreadLocalArray<T> implements Supplier<T[]> {
 				values[i] = initialValueSupplier.get();
 			}
 
-			tls.set(values);
+			return values;
 
 		} catch (ReflectionException e) {
 			throw new GdxRuntimeException(e);
@@ -0,0 +1,9 @@
+package com.badlogic.gdx.function;
+
+/**
+ * A variant of {@link java.util.function.BinaryOperator} for primitive float values.
+ */
+@FunctionalInterface
+public interface FloatBinaryOperator {
+	float applyAsFloat(float left, float right);
+}
@@ -0,0 +1,9 @@
+package com.badlogic.gdx.function;
+
+/**
+ * A variant of {@link java.util.function.Consumer} which accepts a primitive float value.
+ */
+@FunctionalInterface
+public interface FloatConsumer {
+	void accept(float value);
+}
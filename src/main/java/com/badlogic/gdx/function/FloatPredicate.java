@@ -0,0 +1,9 @@
+package com.badlogic.gdx.function;
+
+/**
+ * A variant of {@link java.util.function.Predicate} which tests a primitive float value.
+ */
+@FunctionalInterface
+public interface FloatPredicate {
+	boolean test(float value);
+}
@@ -10,6 +10,8 @@ import java.util.function.Predicate;
  * <p>
  * Note: The functions to modify arrays are mostly written for convenience, not for efficiency. They should not be
  * used in code sensitive to memory consumption or execution speed.
+ * <p>
+ * For iterating large arrays in parallel, see {@link com.badlogic.gdx.concurrent.ParallelArrayUtils}.
  */
 public class ArrayUtils {
 
@@ -0,0 +1,347 @@
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe variant of {@link LimitedPool}, which can be shared by multiple threads.
+ * <p>
+ * The number of objects created is limited by a global counter. If the limit is reached, and there are no
+ * free objects available to the calling thread, {@link ConcurrentLimitedPool#obtain()} returns null.
+ * <p>
+ * Each thread keeps a small cache ("magazine") of free objects, so that obtaining and freeing objects
+ * doesn't touch shared state most of the time. Magazines are refilled from, and spill over to, a global
+ * lock-free depot in batches. Objects cached by one thread are not available to other threads, so a pool
+ * may return null while other threads hold free objects in their magazines. Threads which stop using the
+ * pool should call {@link ConcurrentLimitedPool#flush()} to return their cached objects.
+ */
+public abstract class ConcurrentLimitedPool<T> {
+
+	private final AtomicInteger limit;
+	private final int magazineSize;
+
+	private final Depot<T> depot;
+
+	private final ThreadLocal<Magazine<T>> magazines;
+
+	public ConcurrentLimitedPool(int capacity) {
+		this(capacity, defaultMagazineSize(capacity));
+	}
+
+	/**
+	 * @param magazineSize the maximum number of free objects cached per thread, or 0 to disable caching
+	 */
+	public ConcurrentLimitedPool(int capacity, int magazineSize) {
+
+		if (capacity < 0 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+
+		if (magazineSize < 0) {
+			throw new IllegalArgumentException("Invalid magazine size: " + magazineSize);
+		}
+
+		this.limit = new AtomicInteger(capacity);
+		this.magazineSize = magazineSize;
+		this.depot = new Depot<>(capacity);
+		this.magazines = ThreadLocal.withInitial(() -> new Magazine<>(magazineSize));
+	}
+
+	abstract protected T newObject();
+
+	/**
+	 * Returns the number of objects which can still be created.
+	 */
+	public int getLimit() {
+		return limit.get();
+	}
+
+	/**
+	 * Returns the number of free objects in the global depot, excluding those cached by threads. This is
+	 * only a snapshot if other threads access the pool concurrently.
+	 */
+	public int getFree() {
+		return depot.size();
+	}
+
+	/**
+	 * Returns an object from the calling thread's cache, from the global depot, or creates a new one.
+	 *
+	 * @return null if the limit has been reached, and there are no free objects available
+	 */
+	public T obtain() {
+
+		Magazine<T> magazine = magazines.get();
+
+		if (magazine.size == 0 && magazineSize > 0) {
+			refill(magazine);
+		}
+
+		if (magazine.size > 0) {
+			return magazine.pop();
+		}
+
+		if (magazineSize == 0) {
+			T object = depot.poll();
+			if (object != null) {
+				return object;
+			}
+		}
+
+		return newObjectWithLimit();
+	}
+
+	/**
+	 * Resets the object, and puts it into the calling thread's cache. If the cache is full, half of it is
+	 * moved to the global depot first. Objects which don't fit into the depot are discarded.
+	 */
+	public void free(T object) {
+
+		if (object == null) {
+			throw new IllegalArgumentException("object cannot be null.");
+		}
+
+		reset(object);
+
+		if (magazineSize == 0) {
+			depot.offer(object);
+			return;
+		}
+
+		Magazine<T> magazine = magazines.get();
+
+		if (magazine.size == magazineSize) {
+			spill(magazine, (magazineSize + 1) / 2);
+		}
+
+		magazine.push(object);
+	}
+
+	/**
+	 * Resets all objects, and puts them into the global depot directly, making them available to all
+	 * threads.
+	 */
+	public void freeAll(Array<T> objects) {
+
+		if (objects == null) {
+			throw new IllegalArgumentException("objects cannot be null.");
+		}
+
+		for (int i = 0; i < objects.size; i++) {
+			T object = objects.get(i);
+			if (object == null) {
+				continue;
+			}
+			reset(object);
+			depot.offer(object);
+		}
+	}
+
+	/**
+	 * Moves all objects cached by the calling thread to the global depot.
+	 */
+	public void flush() {
+		spill(magazines.get(), magazineSize);
+	}
+
+	/**
+	 * Obtains objects until the limit is reached. See {@link LimitedPool#drain(Array)}.
+	 */
+	public Array<T> drain(Array<T> array) {
+		return drain(array, limit.get());
+	}
+
+	/**
+	 * A variant of {@link ConcurrentLimitedPool#drain(Array)} which drains a limited amount of pool
+	 * elements.
+	 */
+	public Array<T> drain(Array<T> array, int capacity) {
+
+		int count = capacity;
+
+		while (limit.get() > 0 && count > 0) {
+			T object = obtain();
+			if (object == null) {
+				break;
+			}
+			array.add(object);
+			count--;
+		}
+
+		return array;
+	}
+
+	/**
+	 * Same as {@link ConcurrentLimitedPool#freeAll(Array)}, but freed elements are credited to the limit. See
+	 * {@link LimitedPool#pour(Array)}.
+	 */
+	public void pour(Array<T> array) {
+		limit.addAndGet(-array.size);
+		freeAll(array);
+	}
+
+	/**
+	 * Called when an object is freed. The default implementation calls {@link Pool.Poolable#reset()} if the
+	 * object implements it.
+	 */
+	protected void reset(T object) {
+		if (object instanceof Pool.Poolable) {
+			((Pool.Poolable) object).reset();
+		}
+	}
+
+	private T newObjectWithLimit() {
+
+		int remaining;
+
+		do {
+			remaining = limit.get();
+			if (remaining <= 0) {
+				return null;
+			}
+		} while (!limit.compareAndSet(remaining, remaining - 1));
+
+		return newObject();
+	}
+
+	private void refill(Magazine<T> magazine) {
+
+		int count = (magazineSize + 1) / 2;
+
+		for (int i = 0; i < count; i++) {
+			T object = depot.poll();
+			if (object == null) {
+				break;
+			}
+			magazine.push(object);
+		}
+	}
+
+	private void spill(Magazine<T> magazine, int count) {
+		for (int i = 0; i < count && magazine.size > 0; i++) {
+			depot.offer(magazine.pop());
+		}
+	}
+
+	private static int defaultMagazineSize(int capacity) {
+		int threads = Runtime.getRuntime().availableProcessors();
+		return Math.max(0, Math.min(16, capacity / (2 * threads)));
+	}
+
+	/**
+	 * Free objects cached by one thread.
+	 */
+	private static final class Magazine<T> {
+
+		private final Object[] items;
+		int size;
+
+		Magazine(int capacity) {
+			items = new Object[capacity];
+		}
+
+		void push(T object) {
+			items[size++] = object;
+		}
+
+		@SuppressWarnings("unchecked")
+		T pop() {
+			T object = (T) items[--size];
+			items[size] = null;
+			return object;
+		}
+	}
+
+	/**
+	 * Bounded, lock-free multi-producer, multi-consumer array queue. Each slot carries a sequence number,
+	 * which tells producers and consumers whether the slot is free, or has been published.
+	 * <p>
+	 * Unlike a linked stack, this doesn't allocate nodes on each operation, and isn't prone to the ABA
+	 * problem. Head and tail indices are placed on separate cache lines.
+	 */
+	private static final class Depot<T> {
+
+		private static final int PAD = Math.max(Host.cpu.cacheLineSize / 8, 8);
+		private static final int HEAD = PAD;
+		private static final int TAIL = 3 * PAD;
+
+		private final AtomicReferenceArray<T> items;
+		private final AtomicLongArray sequences;
+		private final int mask;
+
+		private final AtomicLongArray indices = new AtomicLongArray(5 * PAD);
+
+		Depot(int capacity) {
+
+			int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+			items = new AtomicReferenceArray<>(size);
+			sequences = new AtomicLongArray(size);
+			mask = size - 1;
+
+			for (int i = 0; i < size; i++) {
+				sequences.set(i, i);
+			}
+		}
+
+		/**
+		 * @return false if the depot is full
+		 */
+		boolean offer(T item) {
+
+			long pos = indices.get(TAIL);
+
+			for (;;) {
+
+				int index = (int) (pos & mask);
+				long delta = sequences.get(index) - pos;
+
+				if (delta == 0L) {
+					if (indices.compareAndSet(TAIL, pos, pos + 1)) {
+						items.lazySet(index, item);
+						sequences.lazySet(index, pos + 1);
+						return true;
+					}
+				} else if (delta < 0L) {
+					return false;
+				}
+
+				pos = indices.get(TAIL);
+			}
+		}
+
+		/**
+		 * @return null if the depot is empty
+		 */
+		T poll() {
+
+			long pos = indices.get(HEAD);
+
+			for (;;) {
+
+				int index = (int) (pos & mask);
+				long delta = sequences.get(index) - (pos + 1);
+
+				if (delta == 0L) {
+					if (indices.compareAndSet(HEAD, pos, pos + 1)) {
+						T item = items.get(index);
+						items.lazySet(index, null);
+						sequences.lazySet(index, pos + mask + 1);
+						return item;
+					}
+				} else if (delta < 0L) {
+					return null;
+				}
+
+				pos = indices.get(HEAD);
+			}
+		}
+
+		int size() {
+			long size = indices.get(TAIL) - indices.get(HEAD);
+			return (int) Math.max(Math.min(size, mask + 1), 0L);
+		}
+	}
+
+}
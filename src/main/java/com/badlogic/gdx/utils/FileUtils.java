@@ -2,12 +2,19 @@ package com.badlogic.gdx.utils;
 
 import com.badlogic.gdx.Files;
 import com.badlogic.gdx.checksum.SHA1;
+import com.badlogic.gdx.concurrent.ScratchArena;
 import com.badlogic.gdx.files.FileHandle;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public final class FileUtils {
 
+	private static volatile int hashBufferSize = 1 << 20;
+
 	private FileUtils() {
 
 	}
@@ -55,6 +62,72 @@ public final class FileUtils {
 		return sha1;
 	}
 
+	/**
+	 * Sets the size of the per-thread buffers used by {@link FileUtils#hashFile(Path)}. Files larger than this
+	 * are read in multiple chunks.
+	 */
+	public static void setHashBufferSize(int size) {
+
+		if (size < 4096) {
+			throw new IllegalArgumentException("Invalid buffer size: " + size);
+		}
+
+		hashBufferSize = size;
+	}
+
+	public static int getHashBufferSize() {
+		return hashBufferSize;
+	}
+
+	/**
+	 * Calculates the SHA-1 hash of a file.
+	 *
+	 * The file is read in chunks of up to {@link FileUtils#getHashBufferSize()} bytes, into a direct buffer
+	 * which is borrowed from the {@link ScratchArena} of the calling thread. No buffers are allocated per
+	 * call.
+	 * <p>
+	 * Files are not memory-mapped: mappings are only released by the garbage collector, which pins address
+	 * space when scanning large trees, and keeps files locked on Windows.
+	 */
+	public static SHA1 hashFile(Path path) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+			SHA1 sha1 = SHA1.create();
+
+			try {
+				hashBuffered(channel, sha1);
+			} finally {
+				// also releases the thread's SHA-1 state if reading failed
+				SHA1.submit(sha1);
+			}
+
+			return sha1;
+		}
+	}
+
+	private static void hashBuffered(FileChannel channel, SHA1 sha1) throws IOException {
+
+		ScratchArena arena = ScratchArena.get();
+		int mark = arena.mark();
+
+		try {
+
+			int bufferSize = hashBufferSize;
+			ByteBuffer buffer = arena.bytes(bufferSize);
+
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				SHA1.update(sha1, buffer);
+				buffer.clear();
+				buffer.limit(bufferSize);
+			}
+
+		} finally {
+			arena.reset(mark);
+		}
+	}
+
 	public static FileHandle newFileHandle(File file, Files.FileType type) {
 		return new FileHandleHelper(file, type);
 	}
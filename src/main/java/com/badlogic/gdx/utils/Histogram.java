@@ -0,0 +1,100 @@
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram with one bucket per power of two. Bucket {@code i} counts values in the range
+ * {@code [2^(i-1), 2^i)}, bucket 0 counts zeros.
+ * <p>
+ * Values are recorded with atomic counters, so multiple threads can record to the same histogram. No
+ * objects are allocated per sample.
+ */
+public class Histogram {
+
+	private static final int BUCKETS = 65;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long value) {
+
+		value = Math.max(value, 0L);
+
+		buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+
+		long m;
+		while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+			// retry
+		}
+	}
+
+	public void copyTo(Histogram to) {
+		for (int i = 0; i < BUCKETS; i++) {
+			to.buckets.set(i, buckets.get(i));
+		}
+		to.count.set(count.get());
+		to.sum.set(sum.get());
+		to.max.set(max.get());
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0L);
+		}
+		count.set(0L);
+		sum.set(0L);
+		max.set(0L);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getSum() {
+		return sum.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = count.get();
+		return n > 0 ? (double) sum.get() / n : 0.0;
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile (0..1), which is the upper limit of the bucket the
+	 * percentile falls into.
+	 */
+	public long getPercentile(double percentile) {
+
+		long n = count.get();
+
+		if (n == 0L) {
+			return 0L;
+		}
+
+		long rank = (long) Math.ceil(percentile * n);
+		long seen = 0L;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return i == 0 ? 0L : Math.min((1L << i) - 1L, max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	public long getBucket(int index) {
+		return buckets.get(index);
+	}
+
+}
@@ -1,5 +1,17 @@
 package com.badlogic.gdx.utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 public class Host {
 
 	public enum OS {
@@ -14,6 +26,11 @@ public class Host {
 	 */
 	public static final OS os = getHostOS();
 
+	/**
+	 * Stores the CPU topology of the host.
+	 */
+	public static final CPU cpu = CPU.detect();
+
 	private static OS getHostOS() {
 
 		OS os = OS.Unknown;
@@ -30,4 +47,241 @@ public class Host {
 		return os;
 	}
 
+	/**
+	 * CPU topology of the host system.
+	 * <p>
+	 * On Linux, this information is read from {@code /sys/devices/system/cpu} and {@code /proc/cpuinfo}. On
+	 * other systems, or if detection fails, core counts are taken from {@link Runtime#availableProcessors()},
+	 * the cache line size defaults to 64 bytes (128 bytes on Apple Silicon), and cache sizes are reported as 0.
+	 * <p>
+	 * Core counts describe the whole system. The number of cores available to the JVM process may be lower,
+	 * e.g. if restricted by CPU affinity or container limits, see {@link CPU#getAvailableCores()}.
+	 */
+	public static final class CPU {
+
+		public final int physicalCores;
+		public final int logicalCores;
+
+		/**
+		 * Cache line size, in bytes.
+		 */
+		public final int cacheLineSize;
+
+		/**
+		 * L2 and L3 cache sizes, in bytes, or 0 if unknown.
+		 */
+		public final long l2CacheSize;
+		public final long l3CacheSize;
+
+		public final int numaNodes;
+
+		private CPU(int physicalCores, int logicalCores, int cacheLineSize,
+					long l2CacheSize, long l3CacheSize, int numaNodes) {
+			this.physicalCores = physicalCores;
+			this.logicalCores = logicalCores;
+			this.cacheLineSize = cacheLineSize;
+			this.l2CacheSize = l2CacheSize;
+			this.l3CacheSize = l3CacheSize;
+			this.numaNodes = numaNodes;
+		}
+
+		/**
+		 * Returns the number of logical cores available to the JVM process.
+		 */
+		public int getAvailableCores() {
+			return Runtime.getRuntime().availableProcessors();
+		}
+
+		/**
+		 * Returns the number of physical cores available to the JVM process. This is an estimate, assuming
+		 * that restrictions apply to all cores evenly.
+		 */
+		public int getAvailablePhysicalCores() {
+			int available = getAvailableCores();
+			if (available >= logicalCores) {
+				return physicalCores;
+			}
+			int threadsPerCore = Math.max(logicalCores / physicalCores, 1);
+			return Math.max(available / threadsPerCore, 1);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d cores, %d threads, %d byte cache lines, L2 %d KB, L3 %d KB, %d NUMA node(s)",
+					physicalCores, logicalCores, cacheLineSize, l2CacheSize / 1024, l3CacheSize / 1024, numaNodes);
+		}
+
+		private static CPU detect() {
+
+			int available = Runtime.getRuntime().availableProcessors();
+			String arch = System.getProperty("os.arch", "");
+
+			int defaultCacheLineSize = os == OS.MacOS && arch.contains("aarch64") ? 128 : 64;
+
+			if (os != OS.Linux) {
+				return new CPU(available, available, defaultCacheLineSize, 0L, 0L, 1);
+			}
+
+			Path cpuDir = Paths.get("/sys/devices/system/cpu");
+
+			int logicalCores = 0;
+			Set<String> cores = new HashSet<>();
+
+			try (Stream<Path> dirs = Files.list(cpuDir)) {
+				for (Path dir : (Iterable<Path>) dirs::iterator) {
+					if (!dir.getFileName().toString().matches("cpu\\d+")) {
+						continue;
+					}
+					Path topology = dir.resolve("topology");
+					String packageId = readLine(topology.resolve("physical_package_id"));
+					String coreId = readLine(topology.resolve("core_id"));
+					if (packageId == null || coreId == null) {
+						// offline core
+						continue;
+					}
+					logicalCores++;
+					cores.add(packageId + ":" + coreId);
+				}
+			} catch (IOException | UncheckedIOException ignored) {
+
+			}
+
+			int cacheLineSize = 0;
+			long l2CacheSize = 0L;
+			long l3CacheSize = 0L;
+
+			for (int index = 0; index < 8; index++) {
+
+				Path cache = cpuDir.resolve("cpu0/cache/index" + index);
+				String level = readLine(cache.resolve("level"));
+
+				if (level == null) {
+					break;
+				}
+
+				String type = readLine(cache.resolve("type"));
+
+				if ("Instruction".equals(type)) {
+					continue;
+				}
+
+				cacheLineSize = Math.max(cacheLineSize, parseInt(readLine(cache.resolve("coherency_line_size"))));
+
+				if ("2".equals(level)) {
+					l2CacheSize = parseSize(readLine(cache.resolve("size")));
+				} else if ("3".equals(level)) {
+					l3CacheSize = parseSize(readLine(cache.resolve("size")));
+				}
+			}
+
+			if (logicalCores == 0 || cacheLineSize == 0) {
+
+				// fall back to /proc/cpuinfo, e.g. if sysfs isn't mounted
+				int processors = 0;
+				Set<String> cpuInfoCores = new HashSet<>();
+				String physicalId = "0";
+
+				for (String line : readLines(Paths.get("/proc/cpuinfo"))) {
+
+					int colon = line.indexOf(':');
+
+					if (colon < 0) {
+						continue;
+					}
+
+					String key = line.substring(0, colon).trim();
+					String value = line.substring(colon + 1).trim();
+
+					switch (key) {
+						case "processor":
+							processors++;
+							break;
+						case "physical id":
+							physicalId = value;
+							break;
+						case "core id":
+							cpuInfoCores.add(physicalId + ":" + value);
+							break;
+						case "cache_alignment":
+							if (cacheLineSize == 0) {
+								cacheLineSize = parseInt(value);
+							}
+							break;
+					}
+				}
+
+				if (logicalCores == 0) {
+					logicalCores = processors;
+					cores = cpuInfoCores;
+				}
+			}
+
+			logicalCores = logicalCores > 0 ? logicalCores : available;
+			int physicalCores = cores.isEmpty() ? logicalCores : Math.min(cores.size(), logicalCores);
+
+			cacheLineSize = cacheLineSize > 0 ? cacheLineSize : defaultCacheLineSize;
+
+			int numaNodes = 0;
+
+			try (Stream<Path> dirs = Files.list(Paths.get("/sys/devices/system/node"))) {
+				numaNodes = (int) dirs.filter(dir -> dir.getFileName().toString().matches("node\\d+")).count();
+			} catch (IOException | UncheckedIOException ignored) {
+
+			}
+
+			return new CPU(physicalCores, logicalCores, cacheLineSize,
+					l2CacheSize, l3CacheSize, Math.max(numaNodes, 1));
+		}
+
+		private static String readLine(Path path) {
+			List<String> lines = readLines(path);
+			return lines.isEmpty() ? null : lines.get(0).trim();
+		}
+
+		private static List<String> readLines(Path path) {
+			try {
+				return Files.readAllLines(path, StandardCharsets.US_ASCII);
+			} catch (IOException e) {
+				return Collections.emptyList();
+			}
+		}
+
+		private static int parseInt(String value) {
+			try {
+				return value != null ? Integer.parseInt(value) : 0;
+			} catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+
+		/**
+		 * Parses cache sizes like "32K" or "8M".
+		 */
+		private static long parseSize(String value) {
+
+			if (value == null || value.isEmpty()) {
+				return 0L;
+			}
+
+			long scale = 1L;
+			char unit = Character.toUpperCase(value.charAt(value.length() - 1));
+
+			if (unit == 'K') {
+				scale = 1024L;
+			} else if (unit == 'M') {
+				scale = 1024L * 1024L;
+			} else if (unit == 'G') {
+				scale = 1024L * 1024L * 1024L;
+			}
+
+			String digits = scale > 1L ? value.substring(0, value.length() - 1) : value;
+
+			try {
+				return Long.parseLong(digits.trim()) * scale;
+			} catch (NumberFormatException e) {
+				return 0L;
+			}
+		}
+	}
+
 }
@@ -4,11 +4,30 @@ package com.badlogic.gdx.utils;
  * A specialized version of {@link Pool} which only allows object creation to up to a
  * maximum number of instances. If this maximum is reached, and there are no free
  * objects in the pool, {@link Pool#obtain()} returns null.
+ *
+ * Optionally, usage statistics can be recorded, see {@link LimitedPool#enableStatistics()},
+ * and the number of free objects can follow the actual load, see
+ * {@link LimitedPool#enableAdaptiveSizing(int, float)}.
  */
 public abstract class LimitedPool<T> extends Pool<T> {
 
 	private int limit;
 
+	/**
+	 * Number of objects obtained, and not freed yet.
+	 */
+	private int inUse;
+
+	private Statistics statistics;
+
+	/**
+	 * Peak in-use counts of the last {@link LimitedPool#adapt()} periods, or null if adaptive sizing is disabled.
+	 */
+	private int[] periodPeaks;
+	private int period;
+	private int periodPeak;
+	private float headroom;
+
 	public LimitedPool(int capacity) {
 		super(capacity, capacity);
 		limit = capacity;
@@ -18,13 +37,34 @@ public abstract class LimitedPool<T> extends Pool<T> {
 		return limit;
 	}
 
+	/**
+	 * Returns the number of objects obtained, and not freed yet.
+	 */
+	public int getInUse() {
+		return inUse;
+	}
+
 	@Override
 	public T obtain() {
+
+		T object;
+
 		if (getFree() == 0) {
-			return newObjectWithLimit();
+			object = newObjectWithLimit();
 		} else {
-			return super.obtain();
+			object = super.obtain();
+		}
+
+		if (object != null) {
+			inUse++;
+			periodPeak = Math.max(periodPeak, inUse);
 		}
+
+		if (statistics != null) {
+			statistics.obtained(object, inUse);
+		}
+
+		return object;
 	}
 
 	private T newObjectWithLimit() {
@@ -35,6 +75,45 @@ public abstract class LimitedPool<T> extends Pool<T> {
 		return null;
 	}
 
+	/**
+	 * @throws IllegalStateException if more objects are freed than have been obtained. Use
+	 * {@link LimitedPool#pour(Array)} to add objects which have not been obtained from this pool.
+	 */
+	@Override
+	public void free(T object) {
+
+		if (object == null) {
+			throw new IllegalArgumentException("object cannot be null.");
+		}
+
+		if (inUse == 0) {
+			throw new IllegalStateException("More objects freed than obtained!");
+		}
+
+		super.free(object);
+
+		inUse--;
+
+		if (statistics != null) {
+			statistics.freed(object);
+		}
+	}
+
+	@Override
+	public void freeAll(Array<T> objects) {
+
+		if (objects == null) {
+			throw new IllegalArgumentException("objects cannot be null.");
+		}
+
+		for (int i = 0; i < objects.size; i++) {
+			T object = objects.get(i);
+			if (object != null) {
+				free(object);
+			}
+		}
+	}
+
 	/**
 	 * "Drains" the pool by obtaining new elements until the maximum capacity is reached.
 	 *
@@ -81,7 +160,210 @@ public abstract class LimitedPool<T> extends Pool<T> {
 	 */
 	public void pour(Array<T> array) {
 		limit -= array.size;
+		// poured elements have not been obtained from this pool
+		inUse += array.size;
 		freeAll(array);
 	}
 
+	/**
+	 * Starts recording usage statistics. Object lifetimes are only measured for objects obtained after this
+	 * call.
+	 */
+	public void enableStatistics() {
+		if (statistics == null) {
+			statistics = new Statistics();
+		}
+	}
+
+	public void disableStatistics() {
+		statistics = null;
+	}
+
+	/**
+	 * Returns the statistics recorded, or null if disabled.
+	 */
+	public Statistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Enables adaptive sizing. Each call to {@link LimitedPool#adapt()}, e.g. once per frame or once per second,
+	 * closes one period. The pool then keeps enough objects, in use or free, to serve the highest number of
+	 * objects in use during the last {@code periods} periods, plus some headroom.
+	 *
+	 * @param periods number of periods to compute the high-water mark from
+	 * @param headroom fraction of the high-water mark to keep in addition, e.g. 0.25 for 25%
+	 */
+	public void enableAdaptiveSizing(int periods, float headroom) {
+
+		if (periods < 1) {
+			throw new IllegalArgumentException("Invalid number of periods: " + periods);
+		}
+
+		if (headroom < 0.0f) {
+			throw new IllegalArgumentException("Invalid headroom: " + headroom);
+		}
+
+		this.periodPeaks = new int[periods];
+		this.period = 0;
+		this.periodPeak = inUse;
+		this.headroom = headroom;
+	}
+
+	public void disableAdaptiveSizing() {
+		periodPeaks = null;
+	}
+
+	/**
+	 * Closes the current period of adaptive sizing, and then pre-fills or trims the free objects to follow the
+	 * high-water mark. Trimmed objects are discarded, and credited to the limit, so they can be created again
+	 * later. Does nothing if adaptive sizing is disabled.
+	 */
+	public void adapt() {
+
+		if (periodPeaks == null) {
+			return;
+		}
+
+		periodPeaks[period] = periodPeak;
+		period = (period + 1) % periodPeaks.length;
+		periodPeak = inUse;
+
+		int highWaterMark = 0;
+
+		for (int peak : periodPeaks) {
+			highWaterMark = Math.max(highWaterMark, peak);
+		}
+
+		int target = (int) Math.ceil(highWaterMark * (1.0f + headroom));
+		int total = inUse + getFree();
+
+		while (total < target && limit > 0 && getFree() < max) {
+			limit--;
+			// bypasses free(), these objects have never been in use
+			super.free(newObject());
+			total++;
+		}
+
+		while (total > target && getFree() > 0) {
+			// bypasses obtain(), the object is discarded
+			super.obtain();
+			limit++;
+			total--;
+		}
+	}
+
+	/**
+	 * Implemented by pooled objects to have their lifetimes measured, see {@link Statistics#getLifetimes()}.
+	 * The pool stores the time an object was obtained in the object itself.
+	 */
+	public interface Timestamped {
+
+		void setObtainedNanos(long nanos);
+
+		long getObtainedNanos();
+	}
+
+	/**
+	 * Usage statistics of a {@link LimitedPool}. No objects are allocated per sample.
+	 */
+	public static class Statistics {
+
+		private final Histogram lifetimes = new Histogram();
+
+		private long obtained;
+		private long freed;
+		private long exhausted;
+		private int peakInUse;
+
+		private long startNanos = System.nanoTime();
+
+		void obtained(Object object, int inUse) {
+
+			if (object == null) {
+				exhausted++;
+				return;
+			}
+
+			obtained++;
+			peakInUse = Math.max(peakInUse, inUse);
+
+			if (object instanceof Timestamped) {
+				((Timestamped) object).setObtainedNanos(System.nanoTime());
+			}
+		}
+
+		void freed(Object object) {
+
+			freed++;
+
+			if (object instanceof Timestamped) {
+				Timestamped timestamped = (Timestamped) object;
+				long time = timestamped.getObtainedNanos();
+				if (time != 0L) {
+					lifetimes.record(System.nanoTime() - time);
+					timestamped.setObtainedNanos(0L);
+				}
+			}
+		}
+
+		/**
+		 * Resets all counters. Objects currently in use are still measured when freed.
+		 */
+		public void reset() {
+			lifetimes.reset();
+			obtained = 0L;
+			freed = 0L;
+			exhausted = 0L;
+			peakInUse = 0;
+			startNanos = System.nanoTime();
+		}
+
+		public long getObtained() {
+			return obtained;
+		}
+
+		public long getFreed() {
+			return freed;
+		}
+
+		/**
+		 * Returns the number of times {@link LimitedPool#obtain()} returned null.
+		 */
+		public long getExhausted() {
+			return exhausted;
+		}
+
+		public int getPeakInUse() {
+			return peakInUse;
+		}
+
+		/**
+		 * Returns the number of objects obtained per second, since statistics were enabled or reset.
+		 */
+		public double getObtainRate() {
+			return perSecond(obtained);
+		}
+
+		/**
+		 * Returns the number of objects freed per second, since statistics were enabled or reset.
+		 */
+		public double getFreeRate() {
+			return perSecond(freed);
+		}
+
+		/**
+		 * Returns the distribution of object lifetimes, from obtain to free, in nanoseconds. Only objects which
+		 * implement {@link Timestamped}, and have been obtained while statistics were enabled, are measured.
+		 */
+		public Histogram getLifetimes() {
+			return lifetimes;
+		}
+
+		private double perSecond(long count) {
+			long nanos = System.nanoTime() - startNanos;
+			return nanos > 0L ? count * 1.0e9 / nanos : 0.0;
+		}
+	}
+
 }
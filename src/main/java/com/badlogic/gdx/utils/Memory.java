@@ -70,6 +70,21 @@ public class Memory {
 		return theUnsafe.getLong(buffer, addressFieldOffset);
 	}
 
+	/**
+	 * Reads a byte from native memory. The address is not checked.
+	 */
+	public static byte getByte(long address) {
+		return theUnsafe.getByte(address);
+	}
+
+	/**
+	 * Reads a long, in native byte order, from native memory. The address is not checked, and doesn't need
+	 * to be aligned on platforms which support unaligned access.
+	 */
+	public static long getLong(long address) {
+		return theUnsafe.getLong(address);
+	}
+
 	private static Unsafe getUnsafe() {
 		try {
 			Field f = Unsafe.class.getDeclaredField("theUnsafe");